@@ -0,0 +1,47 @@
+#!/usr/bin/env sh
+# Reports time-to-first-request and steady-state throughput for each image variant.
+#
+#   docker build -t transactions-api:jvm .
+#   docker build -t transactions-api:cds    --target cds .
+#   docker build -t transactions-api:native --target native .
+#   scripts/startup-benchmark.sh transactions-api:jvm transactions-api:cds transactions-api:native
+#
+# Throughput uses `hey` (https://github.com/rakyll/hey) when it is on the PATH, and fails
+# unless every response was a 200.
+#
+# Admission control stays on: whether it is enabled is fixed when the native image is built,
+# so instead every image gets the same limits, too high for the load to reach.
+set -eu
+
+PORT=18080
+URL="http://localhost:$PORT/transactions/types/cars"
+UNLIMITED=1000000000
+
+# `date +%s%3N` is GNU-only; Perl ships with macOS and most Linux distributions.
+now_ms() { perl -MTime::HiRes=time -e 'printf "%d\n", time * 1000'; }
+
+for image in "$@"; do
+    start=$(now_ms)
+    container=$(docker run -d --rm -p "$PORT:8080" "$image" \
+        --transactions.admission.requests-per-second=$UNLIMITED \
+        --transactions.admission.burst=$UNLIMITED)
+    until curl -fs -o /dev/null "$URL"; do sleep 0.01; done
+    ready=$(now_ms)
+    echo "$image: first request served after $((ready - start)) ms"
+
+    if command -v hey >/dev/null 2>&1; then
+        curl -fs -o /dev/null -H 'Content-Type: application/json' \
+            -d '{"amount": 5000, "type": "cars"}' "http://localhost:$PORT/transactions"
+        hey -z 10s -c 32 "http://localhost:$PORT/transactions/1" >/dev/null   # warm-up
+        report=$(hey -z 30s -c 32 "http://localhost:$PORT/transactions/1")
+        echo "$report" | grep 'Requests/sec' | sed "s|^|$image: steady-state |"
+        statuses=$(echo "$report" | grep -E '^[[:space:]]*\[[0-9]+\]' || true)
+        if [ -z "$statuses" ] || echo "$statuses" | grep -qv '\[200\]'; then
+            echo "$image: expected only 200 responses, got:" >&2
+            echo "${statuses:-none}" >&2
+            docker stop "$container" >/dev/null
+            exit 1
+        fi
+    fi
+    docker stop "$container" >/dev/null
+done
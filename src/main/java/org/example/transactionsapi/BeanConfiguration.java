@@ -1,19 +1,59 @@
 package org.example.transactionsapi;
 
+import org.example.transactionsapi.domain.port.in.GetTransactionSumUseCase;
+import org.example.transactionsapi.domain.port.out.TransactionChangeLog;
 import org.example.transactionsapi.domain.port.out.TransactionRepository;
+import org.example.transactionsapi.domain.service.CoalescingTransactionSumService;
+import org.example.transactionsapi.domain.service.IdSequence;
 import org.example.transactionsapi.domain.service.TransactionService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
 
 /**
  * Spring wiring: bridges the domain service (framework-free) with the
- * Spring application context, injecting the repository port implementation.
+ * Spring application context, injecting the repository and change log port implementations.
  */
 @Configuration
 public class BeanConfiguration {
 
     @Bean
-    public TransactionService transactionService(TransactionRepository repository) {
-        return new TransactionService(repository);
+    public TransactionService transactionService(
+            TransactionRepository repository,
+            TransactionChangeLog changeLog,
+            IdSequence idSequence,
+            @Value("${transactions.sum.max-nodes:0}") long maxSumNodes) {
+        return new TransactionService(repository, changeLog,
+                maxSumNodes > 0 ? maxSumNodes : TransactionService.UNLIMITED_SUM_NODES, idSequence);
+    }
+
+    /**
+     * Ids are striped across the nodes listed in transactions.cluster.nodes; standalone when unset.
+     * Allocation resumes above the highest id already stored, so a durable store keeps its rows across restarts.
+     */
+    @Bean
+    public IdSequence idSequence(
+            @Value("${transactions.cluster.nodes:}") List<String> nodes,
+            @Value("${transactions.cluster.self-index:0}") int selfIndex,
+            TransactionRepository repository) {
+        IdSequence idSequence = nodes.isEmpty() ? IdSequence.single() : new IdSequence(nodes.size(), selfIndex);
+        idSequence.advancePast(repository.maxId());
+        return idSequence;
+    }
+
+    /**
+     * Sum queries go through single-flight coalescing, which also caps concurrent traversals;
+     * @Primary so it wins over the plain service wherever GetTransactionSumUseCase is injected.
+     */
+    @Bean
+    @Primary
+    public GetTransactionSumUseCase transactionSumUseCase(
+            TransactionService transactionService,
+            @Value("${transactions.sum.max-concurrent-traversals:0}") int maxConcurrentTraversals) {
+        return new CoalescingTransactionSumService(transactionService,
+                maxConcurrentTraversals > 0 ? maxConcurrentTraversals : Runtime.getRuntime().availableProcessors());
     }
 }
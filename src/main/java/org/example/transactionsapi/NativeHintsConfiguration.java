@@ -0,0 +1,31 @@
+package org.example.transactionsapi;
+
+import org.example.transactionsapi.adapter.in.web.dto.CreateTransactionRequest;
+import org.example.transactionsapi.adapter.in.web.dto.CreateTransactionResponse;
+import org.example.transactionsapi.adapter.in.web.dto.ImportTransactionsResponse;
+import org.example.transactionsapi.adapter.in.web.dto.StatusResponse;
+import org.example.transactionsapi.adapter.in.web.dto.SumResponse;
+import org.example.transactionsapi.adapter.in.web.dto.TransactionChangeResponse;
+import org.example.transactionsapi.adapter.in.web.dto.TransactionRequest;
+import org.example.transactionsapi.adapter.in.web.dto.TransactionResponse;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * GraalVM reachability metadata: registers the Jackson-bound DTO records for reflection.
+ * Spring AOT infers most controller payloads, but not those behind CompletableFuture
+ * or sent through SseEmitter, so every DTO is listed explicitly.
+ */
+@Configuration
+@RegisterReflectionForBinding({
+        CreateTransactionRequest.class,
+        CreateTransactionResponse.class,
+        TransactionRequest.class,
+        TransactionResponse.class,
+        StatusResponse.class,
+        SumResponse.class,
+        TransactionChangeResponse.class,
+        ImportTransactionsResponse.class
+})
+public class NativeHintsConfiguration {
+}
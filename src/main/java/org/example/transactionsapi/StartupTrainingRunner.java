@@ -0,0 +1,78 @@
+package org.example.transactionsapi;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Training workload for the AppCDS archive (see the cdsArchive Gradle task and the cds
+ * Docker stage). With transactions.training.enabled=true, drives every endpoint over HTTP
+ * once the server is up, then shuts the application down so the JVM dumps the classes
+ * the workload loaded. All requests come from one address, so the training run raises the
+ * admission limits rather than disabling admission control.
+ */
+@Component
+@ConditionalOnProperty(name = "transactions.training.enabled", havingValue = "true")
+public class StartupTrainingRunner implements ApplicationRunner {
+
+    private static final int ITERATIONS = 50;
+
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+
+    public StartupTrainingRunner(ConfigurableApplicationContext context, Environment environment) {
+        this.context = context;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String base = "http://localhost:" + environment.getProperty("local.server.port") + "/transactions";
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (int i = 0; i < ITERATIONS; i++) {
+                String root = id(send(client, post(base, "{\"amount\": 5000, \"type\": \"cars\"}")));
+                String child = id(send(client, post(base,
+                        "{\"amount\": 10000, \"type\": \"shopping\", \"parent_id\": " + root + "}")));
+                String version = send(client, HttpRequest.newBuilder(URI.create(base + "/" + child)).GET())
+                        .headers().firstValue("ETag").orElse("\"1\"");
+                send(client, HttpRequest.newBuilder(URI.create(base + "/" + child))
+                        .header("Content-Type", "application/json")
+                        .header("If-Match", version)
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"amount\": 7500, \"type\": \"shopping\", \"parent_id\": " + root + "}")));
+                String etag = send(client, HttpRequest.newBuilder(URI.create(base + "/sum/" + root)).GET())
+                        .headers().firstValue("ETag").orElse("\"0\"");
+                send(client, HttpRequest.newBuilder(URI.create(base + "/sum/" + root))
+                        .header("If-None-Match", etag).GET());
+                send(client, HttpRequest.newBuilder(URI.create(base + "/types/cars")).GET());
+                send(client, HttpRequest.newBuilder(URI.create(base + "/999999999")).GET());
+                send(client, HttpRequest.newBuilder(URI.create(base + "/changes?waitMs=0")).GET());
+            }
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private static HttpRequest.Builder post(String base, String body) {
+        return HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String id(HttpResponse<String> response) {
+        return response.body().replaceAll("[^0-9]", "");
+    }
+}
@@ -1,6 +1,14 @@
 package org.example.transactionsapi.adapter.in.web;
 
+import org.example.transactionsapi.adapter.in.web.admin.InvalidTransactionDumpException;
+import org.example.transactionsapi.adapter.in.web.admission.AdmissionRejectedException;
+import org.example.transactionsapi.domain.model.ChangesNoLongerAvailableException;
+import org.example.transactionsapi.domain.model.CrossPartitionReparentException;
 import org.example.transactionsapi.domain.model.TransactionNotFoundException;
+import org.example.transactionsapi.domain.model.TransactionSumBudgetExceededException;
+import org.example.transactionsapi.domain.model.TransactionSumCapacityExceededException;
+import org.example.transactionsapi.domain.model.TransactionVersionConflictException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,4 +28,55 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.NOT_FOUND)
                 .body(Map.of("error", ex.getMessage()));
     }
+
+    @ExceptionHandler(TransactionVersionConflictException.class)
+    public ResponseEntity<Map<String, String>> handleVersionConflict(TransactionVersionConflictException ex) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(CrossPartitionReparentException.class)
+    public ResponseEntity<Map<String, String>> handleCrossPartitionReparent(CrossPartitionReparentException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ChangesNoLongerAvailableException.class)
+    public ResponseEntity<Map<String, String>> handleChangesGone(ChangesNoLongerAvailableException ex) {
+        return ResponseEntity
+                .status(HttpStatus.GONE)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TransactionSumBudgetExceededException.class)
+    public ResponseEntity<Map<String, String>> handleSumBudgetExceeded(TransactionSumBudgetExceededException ex) {
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidTransactionDumpException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidDump(InvalidTransactionDumpException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleAdmissionRejected(AdmissionRejectedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TransactionSumCapacityExceededException.class)
+    public ResponseEntity<Map<String, String>> handleSumCapacityExceeded(TransactionSumCapacityExceededException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getMessage()));
+    }
 }
@@ -0,0 +1,182 @@
+package org.example.transactionsapi.adapter.in.web;
+
+import jakarta.annotation.PreDestroy;
+import org.example.transactionsapi.adapter.in.web.dto.TransactionChangeResponse;
+import org.example.transactionsapi.adapter.in.web.dto.TransactionResponse;
+import org.example.transactionsapi.domain.model.ChangesNoLongerAvailableException;
+import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.model.TransactionChange;
+import org.example.transactionsapi.domain.port.in.GetTransactionChangesUseCase;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * REST adapter for the change feed: long-poll and server-sent events.
+ *
+ * Each waiting request or open stream is served by its own virtual thread pulling
+ * from the change log at its own pace, so a slow consumer only delays itself.
+ * Positions are handed out as "epoch-sequence" tokens: sequences restart with the log,
+ * and a token from another epoch is answered with 410 (or a "reset" event) instead of
+ * being resumed at a sequence that now means something else.
+ */
+@RestController
+@RequestMapping("/transactions/changes")
+public class TransactionChangeController {
+
+    private static final int MAX_BATCH = 1000;
+    private static final long MAX_WAIT_MILLIS = 30_000;
+    /** Headroom above the wait before the request's own async timeout answers with an empty batch. */
+    private static final long ASYNC_TIMEOUT_MARGIN_MILLIS = 5_000;
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+    private final GetTransactionChangesUseCase changes;
+    private final ExecutorService consumers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TransactionChangeController(GetTransactionChangesUseCase changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * GET /transactions/changes?after={position}&limit={n}&waitMs={ms}
+     * Long-poll: returns the changes following the given position, waiting up to waitMs
+     * for the first one; an empty list when none arrived. Without after, waits for the next change.
+     * 410 if the position has been evicted from the bounded log or belongs to another epoch.
+     *
+     * The request carries its own async timeout, just above the wait, so an idle poll always
+     * ends as an empty 200 whatever spring.mvc.async.request-timeout is set to.
+     */
+    @GetMapping
+    public DeferredResult<ResponseEntity<List<TransactionChangeResponse>>> poll(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "30000") long waitMs) {
+        Position from = after != null ? Position.parse(after) : latest();
+        int batchSize = Math.max(1, Math.min(limit, MAX_BATCH));
+        Duration wait = Duration.ofMillis(Math.max(0, Math.min(waitMs, MAX_WAIT_MILLIS)));
+        DeferredResult<ResponseEntity<List<TransactionChangeResponse>>> result = new DeferredResult<>(
+                wait.toMillis() + ASYNC_TIMEOUT_MARGIN_MILLIS, () -> ResponseEntity.ok(List.of()));
+        consumers.execute(() -> {
+            try {
+                result.setResult(ResponseEntity.ok(
+                        changes.getChangesAfter(from.epoch(), from.sequence(), batchSize, wait).stream()
+                                .map(change -> toResponse(from.epoch(), change))
+                                .toList()));
+            } catch (RuntimeException ex) {
+                result.setErrorResult(ex);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * GET /transactions/changes/stream
+     * Server-sent events, one "change" event per mutation with its position as event id.
+     * Resumes after Last-Event-ID (or the after parameter); otherwise starts at the next change.
+     * A consumer that falls too far behind, or resumes from a position the log does not know
+     * (such as one from before a restart), receives a "reset" event and the stream closes.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String after) {
+        Position from = lastEventId != null ? Position.parse(lastEventId)
+                : after != null ? Position.parse(after)
+                : latest();
+
+        SseEmitter emitter = new SseEmitter(0L);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(ex -> open.set(false));
+        consumers.execute(() -> pump(emitter, from, open));
+        return emitter;
+    }
+
+    private void pump(SseEmitter emitter, Position from, AtomicBoolean open) {
+        long cursor = from.sequence();
+        try {
+            while (open.get() && !Thread.currentThread().isInterrupted()) {
+                List<TransactionChange> batch =
+                        changes.getChangesAfter(from.epoch(), cursor, MAX_BATCH, HEARTBEAT_INTERVAL);
+                if (batch.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                for (TransactionChange change : batch) {
+                    TransactionChangeResponse response = toResponse(from.epoch(), change);
+                    emitter.send(SseEmitter.event()
+                            .id(response.position())
+                            .name("change")
+                            .data(response, MediaType.APPLICATION_JSON));
+                    cursor = change.sequence();
+                }
+            }
+            emitter.complete();
+        } catch (ChangesNoLongerAvailableException ex) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("reset")
+                        .data(Map.of("error", ex.getMessage()), MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException | IllegalStateException ignored) {
+                // client already gone
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // client disconnected or the emitter was completed underneath us
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        consumers.shutdownNow();
+    }
+
+    private Position latest() {
+        return new Position(changes.getChangeEpoch(), changes.getLatestChangeSequence());
+    }
+
+    private static TransactionChangeResponse toResponse(String epoch, TransactionChange change) {
+        return new TransactionChangeResponse(change.sequence(), new Position(epoch, change.sequence()).token(),
+                toResponse(change.before()), toResponse(change.after()));
+    }
+
+    private static TransactionResponse toResponse(Transaction tx) {
+        return tx == null ? null : new TransactionResponse(tx.id(), tx.amount(), tx.type(), tx.parentId());
+    }
+
+    /** A resume token: "epoch-sequence". */
+    private record Position(String epoch, long sequence) {
+
+        /**
+         * Anything that is not a well-formed token, such as a bare sequence handed out before
+         * positions carried an epoch, is taken as a position in an unknown epoch, so the caller re-syncs.
+         */
+        static Position parse(String token) {
+            int dash = token.lastIndexOf('-');
+            try {
+                return new Position(token.substring(0, dash), Long.parseLong(token.substring(dash + 1)));
+            } catch (IndexOutOfBoundsException | NumberFormatException ex) {
+                return new Position(token, 0);
+            }
+        }
+
+        String token() {
+            return epoch + "-" + sequence;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.example.transactionsapi.domain.port.in.GetTransactionByIdUseCase;
 import org.example.transactionsapi.domain.port.in.GetTransactionsByTypeUseCase;
 import org.example.transactionsapi.domain.port.in.GetTransactionSumUseCase;
 import org.example.transactionsapi.domain.port.in.UpdateTransactionUseCase;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -27,6 +29,9 @@ import java.util.List;
 /**
  * REST adapter (driving side) — translates HTTP requests into use case calls.
  * Depends only on port interfaces, never on the concrete service.
+ *
+ * ETags are "epoch-version" whenever the versions restart with the process, so a tag cached
+ * before a restart can never match a different transaction or sum that reuses the number.
  */
 @RestController
 @RequestMapping("/transactions")
@@ -65,23 +70,42 @@ public class TransactionController {
     /**
      * PUT /transactions/{transactionId}
      * Updates an existing transaction. Returns 404 if the id does not exist.
+     * With If-Match, the update only applies to the given version; otherwise 412.
      */
     @PutMapping("/{transactionId}")
     public ResponseEntity<StatusResponse> update(
             @PathVariable Long transactionId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody TransactionRequest request) {
-        updateTransaction.updateTransaction(transactionId, request.amount(), request.type(), request.parentId());
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            expectedVersion = parseVersion(ifMatch, getById.getVersionEpoch());
+            if (expectedVersion == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
+        updateTransaction.updateTransaction(
+                transactionId, request.amount(), request.type(), request.parentId(), expectedVersion);
         return ResponseEntity.ok(new StatusResponse("ok"));
     }
 
     /**
      * GET /transactions/{transactionId}
      * Returns the full details of a single transaction.
+     * The ETag is the transaction version (with the epoch); a matching If-None-Match yields 304.
      */
     @GetMapping("/{transactionId}")
-    public ResponseEntity<TransactionResponse> getById(@PathVariable Long transactionId) {
+    public ResponseEntity<TransactionResponse> getById(
+            @PathVariable Long transactionId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Transaction tx = getById.getTransactionById(transactionId);
-        return ResponseEntity.ok(new TransactionResponse(tx.id(), tx.amount(), tx.type(), tx.parentId()));
+        String etag = etag(getById.getVersionEpoch(), tx.version());
+        if (matchesAny(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(new TransactionResponse(tx.id(), tx.amount(), tx.type(), tx.parentId()));
     }
 
     /**
@@ -96,9 +120,63 @@ public class TransactionController {
     /**
      * GET /transactions/sum/{transactionId}
      * Returns the transitive sum of amounts for the given transaction and all its descendants.
+     * The ETag is the subtree version stamp with the epoch, read before summing so it can only be
+     * older than the body; a matching If-None-Match yields 304 without traversing the tree.
+     * Without an authoritative stamp (a store shared with other processes) no ETag is sent.
      */
     @GetMapping("/sum/{transactionId}")
-    public ResponseEntity<SumResponse> getSum(@PathVariable Long transactionId) {
-        return ResponseEntity.ok(new SumResponse(getSum.getTransactionSum(transactionId)));
+    public ResponseEntity<SumResponse> getSum(
+            @PathVariable Long transactionId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!getSum.isSumVersionAuthoritative()) {
+            return ResponseEntity.ok(new SumResponse(getSum.getTransactionSum(transactionId)));
+        }
+        String etag = etag(getSum.getSumVersionEpoch(), getSum.getTransactionSumVersion(transactionId));
+        if (matchesAny(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(new SumResponse(getSum.getTransactionSum(transactionId)));
+    }
+
+    // --- ETag helpers ---
+
+    private static String etag(String epoch, long version) {
+        return "\"" + (epoch.isEmpty() ? "" : epoch + "-") + version + "\"";
+    }
+
+    /** Weak comparison as required for If-None-Match: W/ prefixes are ignored, * matches anything. */
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the version from a single strong ETag such as "k3x9-3" (or "3" without an epoch);
+     * null if it is not one of ours, including one issued under another epoch.
+     */
+    private static Long parseVersion(String ifMatch, String epoch) {
+        String tag = ifMatch.trim();
+        String prefix = "\"" + (epoch.isEmpty() ? "" : epoch + "-");
+        if (tag.length() <= prefix.length() + 1 || !tag.startsWith(prefix) || tag.charAt(tag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,11 @@
+package org.example.transactionsapi.adapter.in.web.admin;
+
+/**
+ * Thrown when an uploaded dump is not in the expected format or is truncated; mapped to 400.
+ */
+public class InvalidTransactionDumpException extends RuntimeException {
+
+    public InvalidTransactionDumpException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.transactionsapi.adapter.in.web.admin;
+
+import org.example.transactionsapi.adapter.in.web.dto.ImportTransactionsResponse;
+import org.example.transactionsapi.domain.model.TransactionImport;
+import org.example.transactionsapi.domain.port.in.ExportTransactionsUseCase;
+import org.example.transactionsapi.domain.port.in.ImportTransactionsUseCase;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+
+/**
+ * Admin endpoints to back up or seed the whole store in one streamed request.
+ * Disabled unless transactions.admin.enabled=true, as they are not authenticated.
+ */
+@RestController
+@RequestMapping("/admin/transactions")
+@ConditionalOnProperty(name = "transactions.admin.enabled", havingValue = "true")
+public class TransactionAdminController {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportTransactionsUseCase exporter;
+    private final ImportTransactionsUseCase importer;
+
+    public TransactionAdminController(ExportTransactionsUseCase exporter, ImportTransactionsUseCase importer) {
+        this.exporter = exporter;
+        this.importer = importer;
+    }
+
+    /**
+     * GET /admin/transactions/export
+     * Streams every transaction in the binary dump format, straight from the store
+     * to the response without building the dump in memory.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTransactions() {
+        StreamingResponseBody body = out -> {
+            TransactionDumpWriter writer = new TransactionDumpWriter(new BufferedOutputStream(out, BUFFER_SIZE));
+            exporter.exportTransactions(writer::write);
+            writer.finish();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("transactions.dump").build().toString())
+                .body(body);
+    }
+
+    /**
+     * POST /admin/transactions/import
+     * Bulk-loads a dump produced by the export endpoint, overwriting transactions with the same id.
+     * In a cluster, transactions owned by other nodes are skipped rather than loaded here.
+     * 400 if the body is not a complete dump; records read before the error stay loaded.
+     */
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ImportTransactionsResponse> importTransactions(InputStream body) {
+        TransactionImport result = importer.importTransactions(
+                new TransactionDumpReader(new BufferedInputStream(body, BUFFER_SIZE)));
+        return ResponseEntity.ok(new ImportTransactionsResponse(result.imported(), result.skipped()));
+    }
+}
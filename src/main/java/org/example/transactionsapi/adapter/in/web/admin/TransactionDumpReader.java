@@ -0,0 +1,109 @@
+package org.example.transactionsapi.adapter.in.web.admin;
+
+import org.example.transactionsapi.domain.model.Transaction;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.example.transactionsapi.adapter.in.web.admin.TransactionDumpWriter.END;
+import static org.example.transactionsapi.adapter.in.web.admin.TransactionDumpWriter.FORMAT_VERSION;
+import static org.example.transactionsapi.adapter.in.web.admin.TransactionDumpWriter.HAS_PARENT;
+import static org.example.transactionsapi.adapter.in.web.admin.TransactionDumpWriter.HAS_TYPE;
+import static org.example.transactionsapi.adapter.in.web.admin.TransactionDumpWriter.MAGIC;
+import static org.example.transactionsapi.adapter.in.web.admin.TransactionDumpWriter.RECORD;
+
+/**
+ * Streams transactions out of a dump written by {@link TransactionDumpWriter}, one record
+ * at a time. Throws InvalidTransactionDumpException on a bad header, an unknown record,
+ * a truncated stream or a trailer count that does not match.
+ */
+public class TransactionDumpReader implements Iterator<Transaction> {
+
+    private final DataInputStream in;
+    private Transaction next;
+    private long count;
+    private boolean finished;
+
+    public TransactionDumpReader(InputStream in) {
+        this.in = new DataInputStream(in);
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            this.in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC) || this.in.readUnsignedByte() != FORMAT_VERSION) {
+                throw new InvalidTransactionDumpException("Not a version " + FORMAT_VERSION + " transaction dump");
+            }
+        } catch (EOFException ex) {
+            throw new InvalidTransactionDumpException("Not a version " + FORMAT_VERSION + " transaction dump");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = readRecord();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Transaction next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Transaction current = next;
+        next = null;
+        return current;
+    }
+
+    private Transaction readRecord() {
+        try {
+            int tag = in.readUnsignedByte();
+            if (tag == END) {
+                long expected = in.readLong();
+                if (expected != count) {
+                    throw new InvalidTransactionDumpException(
+                            "Dump declares " + expected + " transactions but contains " + count);
+                }
+                finished = true;
+                return null;
+            }
+            if (tag != RECORD) {
+                throw new InvalidTransactionDumpException("Unknown record tag " + tag + " after " + count + " transactions");
+            }
+            long id = in.readLong();
+            double amount = in.readDouble();
+            long version = in.readLong();
+            int flags = in.readUnsignedByte();
+            Long parentId = (flags & HAS_PARENT) != 0 ? in.readLong() : null;
+            String type = (flags & HAS_TYPE) != 0 ? readType() : null;
+            count++;
+            return new Transaction(id, amount, type, parentId, version);
+        } catch (EOFException ex) {
+            throw new InvalidTransactionDumpException("Dump truncated after " + count + " transactions");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** Reads incrementally, so a corrupt length fails as truncation instead of allocating it up front. */
+    private String readType() throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new InvalidTransactionDumpException("Negative type length after " + count + " transactions");
+        }
+        byte[] type = in.readNBytes(length);
+        if (type.length < length) {
+            throw new EOFException();
+        }
+        return new String(type, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.transactionsapi.adapter.in.web.admin;
+
+import org.example.transactionsapi.domain.model.Transaction;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes transactions in the binary dump format read by {@link TransactionDumpReader}.
+ *
+ * Layout (big-endian, as {@link DataOutputStream} writes it):
+ * <pre>
+ * header   "TXDUMP" format-version:byte
+ * record   1:byte id:long amount:double version:long flags:byte [parent-id:long] [type-length:int type:UTF-8]
+ * trailer  0:byte record-count:long
+ * </pre>
+ * flags bit 0 marks a parent id, bit 1 a type. About 30 bytes per transaction. Version 1 wrote
+ * the type with writeUTF, which cannot hold more than 65535 bytes; it is no longer read.
+ */
+public class TransactionDumpWriter {
+
+    static final byte[] MAGIC = {'T', 'X', 'D', 'U', 'M', 'P'};
+    static final int FORMAT_VERSION = 2;
+    static final int RECORD = 1;
+    static final int END = 0;
+    static final int HAS_PARENT = 1;
+    static final int HAS_TYPE = 2;
+
+    private final DataOutputStream out;
+    private long count;
+
+    public TransactionDumpWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(MAGIC);
+        this.out.writeByte(FORMAT_VERSION);
+    }
+
+    /** @throws UncheckedIOException so it can be passed as a Consumer */
+    public void write(Transaction transaction) {
+        try {
+            out.writeByte(RECORD);
+            out.writeLong(transaction.id());
+            out.writeDouble(transaction.amount());
+            out.writeLong(transaction.version());
+            out.writeByte((transaction.parentId() != null ? HAS_PARENT : 0) | (transaction.type() != null ? HAS_TYPE : 0));
+            if (transaction.parentId() != null) {
+                out.writeLong(transaction.parentId());
+            }
+            if (transaction.type() != null) {
+                byte[] type = transaction.type().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(type.length);
+                out.write(type);
+            }
+            count++;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** Writes the trailer and flushes; the underlying stream is left open. */
+    public void finish() throws IOException {
+        out.writeByte(END);
+        out.writeLong(count);
+        out.flush();
+    }
+}
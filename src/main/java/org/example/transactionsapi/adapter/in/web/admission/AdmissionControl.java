@@ -0,0 +1,85 @@
+package org.example.transactionsapi.adapter.in.web.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Cost-aware admission: a token bucket per client, where sum queries cost more than lookups.
+ * (The cap on concurrent sum traversals lives in CoalescingTransactionSumService, so that
+ * requests joining an in-flight sum do not take a slot.)
+ *
+ * The admit path is lock-free — bucket lookups are plain map reads and buckets are
+ * updated by compare-and-set. Only a client's first request inserts into the map.
+ */
+public class AdmissionControl {
+
+    /**
+     * Beyond this many tracked clients, full (idle) buckets are pruned. The next prune waits until
+     * the map has doubled from what survived, so the scans are amortised over the clients added.
+     */
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final double requestsPerSecond;
+    private final int burst;
+    private final int sumCost;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger pruneAbove = new AtomicInteger(PRUNE_THRESHOLD);
+
+    public AdmissionControl(double requestsPerSecond, int burst, int sumCost) {
+        this(requestsPerSecond, burst, sumCost, System::nanoTime);
+    }
+
+    AdmissionControl(double requestsPerSecond, int burst, int sumCost, LongSupplier nanoClock) {
+        if (requestsPerSecond <= 0 || burst < 1 || sumCost < 1) {
+            throw new IllegalArgumentException("Admission limits must be positive");
+        }
+        if (sumCost > burst) {
+            throw new IllegalArgumentException("Sum cost " + sumCost + " can never fit in a burst of " + burst);
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.sumCost = sumCost;
+        this.nanoClock = nanoClock;
+    }
+
+    /** Charges one token to the client for a cheap request. */
+    public void admit(String clientId) {
+        charge(clientId, 1);
+    }
+
+    /** Charges the sum cost to the client. */
+    public void admitSum(String clientId) {
+        charge(clientId, sumCost);
+    }
+
+    int trackedClients() {
+        return buckets.size();
+    }
+
+    private void charge(String clientId, int cost) {
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket == null) {
+            int limit = pruneAbove.get();
+            // claiming the limit lets a single caller prune while the others carry on
+            if (buckets.size() > limit && pruneAbove.compareAndSet(limit, Integer.MAX_VALUE)) {
+                try {
+                    buckets.values().removeIf(b -> b.isFull(now));
+                } finally {
+                    pruneAbove.set(Math.max(PRUNE_THRESHOLD, buckets.size() * 2));
+                }
+            }
+            bucket = buckets.computeIfAbsent(clientId, id -> new TokenBucket(requestsPerSecond, burst, now));
+        }
+        long waitNanos = bucket.tryAcquire(cost, now);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new AdmissionRejectedException("Rate limit exceeded for client " + clientId, retryAfter);
+        }
+    }
+}
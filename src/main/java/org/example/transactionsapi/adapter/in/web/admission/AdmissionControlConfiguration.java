@@ -0,0 +1,38 @@
+package org.example.transactionsapi.adapter.in.web.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the admission layer in front of every /transactions endpoint.
+ * Disable with transactions.admission.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transactions.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfiguration implements WebMvcConfigurer {
+
+    private final AdmissionControl admission;
+
+    public AdmissionControlConfiguration(
+            @Value("${transactions.admission.requests-per-second:200}") double requestsPerSecond,
+            @Value("${transactions.admission.burst:400}") int burst,
+            @Value("${transactions.admission.sum-cost:20}") int sumCost) {
+        this.admission = new AdmissionControl(requestsPerSecond, burst, sumCost);
+    }
+
+    /** Shared with the cluster routing filter, which admits scatter-gathered queries itself. */
+    @Bean
+    public AdmissionControl admissionControl() {
+        return admission;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionControlInterceptor(admission))
+                .addPathPatterns("/transactions/**");
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.transactionsapi.adapter.in.web.admission;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies {@link AdmissionControl} before requests reach the controllers.
+ * Clients are identified by their remote address, never by anything they can choose per request.
+ * Behind a reverse proxy, enable server.forward-headers-strategy so that this is the client's address;
+ * in a cluster, requests forwarded by another node carry the address that node saw.
+ *
+ * A request is charged once: the async redispatch that completes a long-poll or stream is not.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    /** Set by filters that have already charged the request, e.g. before a cluster scatter-gather. */
+    public static final String ADMITTED_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admitted";
+
+    private static final String SUM_PATH = "/transactions/sum/";
+
+    private final AdmissionControl admission;
+
+    public AdmissionControlInterceptor(AdmissionControl admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || request.getAttribute(ADMITTED_ATTRIBUTE) != null) {
+            return true;
+        }
+        String clientId = request.getRemoteAddr();
+        if (request.getRequestURI().startsWith(request.getContextPath() + SUM_PATH)) {
+            admission.admitSum(clientId);
+        } else {
+            admission.admit(clientId);
+        }
+        return true;
+    }
+}
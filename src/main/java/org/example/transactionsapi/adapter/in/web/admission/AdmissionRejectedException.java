@@ -0,0 +1,18 @@
+package org.example.transactionsapi.adapter.in.web.admission;
+
+/**
+ * Thrown by the admission layer when a request is shed; mapped to 429 with Retry-After.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.transactionsapi.adapter.in.web.cluster;
+
+import org.example.transactionsapi.adapter.in.web.admission.AdmissionControl;
+import org.example.transactionsapi.domain.service.IdSequence;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Clustered mode: registers the partition routing filter when transactions.cluster.nodes
+ * lists the base URLs of all nodes (this node at transactions.cluster.self-index).
+ * All nodes must share transactions.cluster.secret.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transactions.cluster.nodes")
+public class ClusterConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<PartitionRoutingFilter> partitionRoutingFilter(
+            IdSequence idSequence,
+            @Value("${transactions.cluster.nodes}") List<String> nodes,
+            @Value("${transactions.cluster.secret:}") String secret,
+            @Value("${transactions.cluster.forward-timeout-ms:5000}") long forwardTimeoutMs,
+            JsonMapper jsonMapper,
+            ObjectProvider<AdmissionControl> admissionControl) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(forwardTimeoutMs))
+                .build();
+        PartitionRoutingFilter filter = new PartitionRoutingFilter(
+                idSequence, nodes, secret, client, Duration.ofMillis(forwardTimeoutMs), jsonMapper,
+                admissionControl.getIfAvailable());
+
+        FilterRegistrationBean<PartitionRoutingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/transactions", "/transactions/*");
+        // route before anything else spends work on a request this node will not serve
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
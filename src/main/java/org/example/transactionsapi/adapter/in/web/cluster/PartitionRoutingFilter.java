@@ -0,0 +1,380 @@
+package org.example.transactionsapi.adapter.in.web.cluster;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.transactionsapi.adapter.in.web.admission.AdmissionControl;
+import org.example.transactionsapi.adapter.in.web.admission.AdmissionControlInterceptor;
+import org.example.transactionsapi.adapter.in.web.admission.AdmissionRejectedException;
+import org.example.transactionsapi.adapter.in.web.dto.CreateTransactionRequest;
+import org.example.transactionsapi.adapter.in.web.json.TransactionJsonCodec;
+import org.example.transactionsapi.domain.service.IdSequence;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Sends each /transactions request to the node owning the data it touches.
+ *
+ * A transaction lives on the node that allocated its id (see {@link IdSequence}), and children
+ * are always created on their parent's node, so a whole tree - and every sum over it - stays on
+ * one node. Requests by id are forwarded to the owner, creates are forwarded to the parent's owner,
+ * and queries by type are scatter-gathered across all nodes. The change feed stays node-local.
+ *
+ * Forwarded requests carry the cluster's shared secret in {@link #FORWARDED_HEADER} and are served
+ * locally, as coming from the original client's address, which the forwarding node passes in
+ * {@link #CLIENT_ID_HEADER}. Both headers are ignored on requests without the right secret.
+ *
+ * A scatter-gathered query is admitted here, before it costs every peer a request; the local
+ * {@link AdmissionControlInterceptor} then lets it through without charging it again.
+ */
+public class PartitionRoutingFilter extends OncePerRequestFilter {
+
+    static final String FORWARDED_HEADER = "X-Transactions-Forwarded";
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private static final String PREFIX = "/transactions";
+    private static final Set<String> FORWARDED_REQUEST_HEADERS =
+            Set.of("accept", "content-type", "if-match", "if-none-match");
+    private static final Set<String> DROPPED_RESPONSE_HEADERS =
+            Set.of("connection", "content-length", "keep-alive", "transfer-encoding");
+
+    private final IdSequence ids;
+    private final List<String> nodes;
+    private final String secret;
+    private final HttpClient client;
+    private final Duration timeout;
+    private final JsonMapper jsonMapper;
+    private final AdmissionControl admission;
+
+    private final ThreadLocal<TransactionJsonCodec> codecs = ThreadLocal.withInitial(TransactionJsonCodec::new);
+
+    /**
+     * @param secret     shared by all nodes; authenticates the requests they forward to each other
+     * @param jsonMapper reads create requests the fast codec rejects, the way the controller would
+     * @param admission  this node's admission control, or null when it is disabled
+     */
+    public PartitionRoutingFilter(IdSequence ids, List<String> nodes, String secret, HttpClient client,
+                                  Duration timeout, JsonMapper jsonMapper, AdmissionControl admission) {
+        if (nodes.size() != ids.partitions()) {
+            throw new IllegalArgumentException("Expected " + ids.partitions() + " node URLs, got " + nodes.size());
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("Clustered mode requires transactions.cluster.secret");
+        }
+        this.ids = ids;
+        this.nodes = nodes.stream().map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url).toList();
+        this.secret = secret;
+        this.client = client;
+        this.timeout = timeout;
+        this.jsonMapper = jsonMapper;
+        this.admission = admission;
+    }
+
+    @Override
+    public void destroy() {
+        client.close();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = pathOf(request);
+        return !(path.equals(PREFIX) || path.startsWith(PREFIX + "/"))
+                || path.startsWith(PREFIX + "/changes");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isForwardedByPeer(request)) {
+            chain.doFilter(new ForwardedRequest(request), response);
+            return;
+        }
+        String rest = pathOf(request).substring(PREFIX.length());
+        String method = request.getMethod();
+
+        if (rest.isEmpty() || rest.equals("/")) {
+            if (HttpMethod.POST.matches(method)) {
+                routeCreate(request, response, chain);
+                return;
+            }
+        } else if (rest.startsWith("/types/")) {
+            if (HttpMethod.GET.matches(method)) {
+                scatterGather(request, response, chain);
+                return;
+            }
+        } else {
+            String id = rest.startsWith("/sum/") ? rest.substring("/sum/".length()) : rest.substring(1);
+            Integer owner = ownerOf(id);
+            if (owner != null && owner != ids.self()) {
+                forward(request, response, owner, request.getInputStream().readAllBytes());
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    /** Children must be allocated by their parent's node; roots are created wherever they arrive. */
+    private void routeCreate(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        Long parentId;
+        try {
+            parentId = parentIdOf(body);
+        } catch (JacksonException ex) {
+            // never guess: serving it here could put a child on the wrong partition
+            writeError(response, HttpStatus.BAD_REQUEST, "Malformed transaction");
+            return;
+        }
+        if (parentId != null && ids.partitionOf(parentId) != ids.self()) {
+            forward(request, response, ids.partitionOf(parentId), body);
+        } else {
+            chain.doFilter(new CachedBodyRequest(request, body), response);
+        }
+    }
+
+    /** The fast codec declines what Jackson might read differently (quoted numbers, for one); fall back to how the controller binds. */
+    private Long parentIdOf(byte[] body) {
+        try {
+            TransactionJsonCodec codec = codecs.get();
+            codec.reset();
+            return codec.readCreateRequest(body, 0, body.length).parentId();
+        } catch (IllegalArgumentException ex) {
+            CreateTransactionRequest request = jsonMapper.readValue(body, CreateTransactionRequest.class);
+            return request != null ? request.parentId() : null; // a null body creates nothing anywhere
+        }
+    }
+
+    private boolean isForwardedByPeer(HttpServletRequest request) {
+        String presented = request.getHeader(FORWARDED_HEADER);
+        return presented != null && MessageDigest.isEqual(
+                presented.getBytes(StandardCharsets.UTF_8), secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void scatterGather(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!admitLocally(request, response)) {
+            return;
+        }
+        List<CompletableFuture<HttpResponse<byte[]>>> remote = new ArrayList<>();
+        for (int node = 0; node < nodes.size(); node++) {
+            if (node != ids.self()) {
+                remote.add(client.sendAsync(forwardedRequest(request, node, null), HttpResponse.BodyHandlers.ofByteArray()));
+            }
+        }
+
+        ContentCachingResponseWrapper local = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, local);
+        if (local.getStatus() != HttpStatus.OK.value()) {
+            remote.forEach(future -> future.cancel(true));
+            local.copyBodyToResponse();
+            return;
+        }
+
+        StringJoiner merged = new StringJoiner(",", "[", "]");
+        appendElements(merged, local.getContentAsByteArray());
+        for (CompletableFuture<HttpResponse<byte[]>> future : remote) {
+            HttpResponse<byte[]> upstream;
+            try {
+                upstream = future.join();
+            } catch (CompletionException ex) {
+                writeUnavailable(response, ex.getCause());
+                return;
+            }
+            if (upstream.statusCode() != HttpStatus.OK.value()) {
+                relay(upstream, response);
+                return;
+            }
+            appendElements(merged, upstream.body());
+        }
+
+        byte[] body = merged.toString().getBytes(StandardCharsets.UTF_8);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /** Charges the client here and marks the request as admitted; answers 429 if it is over its rate. */
+    private boolean admitLocally(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (admission == null) {
+            return true;
+        }
+        try {
+            admission.admit(request.getRemoteAddr());
+        } catch (AdmissionRejectedException ex) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+            writeError(response, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+            return false;
+        }
+        request.setAttribute(AdmissionControlInterceptor.ADMITTED_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, int node, byte[] body)
+            throws IOException {
+        try {
+            relay(client.send(forwardedRequest(request, node, body), HttpResponse.BodyHandlers.ofByteArray()), response);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            writeUnavailable(response, ex);
+        } catch (IOException ex) {
+            writeUnavailable(response, ex);
+        }
+    }
+
+    private HttpRequest forwardedRequest(HttpServletRequest request, int node, byte[] body) {
+        String query = request.getQueryString();
+        URI target = URI.create(nodes.get(node) + pathOf(request) + (query != null ? "?" + query : ""));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target)
+                .timeout(timeout)
+                .method(request.getMethod(), body == null || body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body))
+                .header(FORWARDED_HEADER, secret)
+                // keep admission control keyed on the real client, not on this node
+                .header(CLIENT_ID_HEADER, request.getRemoteAddr());
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (FORWARDED_REQUEST_HEADERS.contains(name.toLowerCase())) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    builder.header(name, value);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static void relay(HttpResponse<byte[]> upstream, HttpServletResponse response) throws IOException {
+        response.setStatus(upstream.statusCode());
+        upstream.headers().map().forEach((name, values) -> {
+            if (!DROPPED_RESPONSE_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        byte[] body = upstream.body();
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static void writeUnavailable(HttpServletResponse response, Throwable cause) throws IOException {
+        writeError(response, HttpStatus.BAD_GATEWAY, "Owning node unavailable (" + cause.getClass().getSimpleName() + ")");
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Appends the elements of a JSON array of numbers, e.g. {@code [1,2]}, to the joiner. */
+    private static void appendElements(StringJoiner joiner, byte[] jsonArray) {
+        String text = new String(jsonArray, StandardCharsets.UTF_8).strip();
+        String elements = text.substring(1, text.length() - 1).strip();
+        if (!elements.isEmpty()) {
+            joiner.add(elements);
+        }
+    }
+
+    private Integer ownerOf(String rawId) {
+        try {
+            return ids.partitionOf(Long.parseLong(rawId));
+        } catch (NumberFormatException ex) {
+            return null; // not a plain id: served locally, where the controller reports the error
+        }
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /** A request forwarded by another node, seen as coming from the client that node received it from. */
+    private static final class ForwardedRequest extends HttpServletRequestWrapper {
+
+        ForwardedRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getRemoteAddr() {
+            String client = getHeader(CLIENT_ID_HEADER);
+            return client != null ? client : super.getRemoteAddr();
+        }
+    }
+
+    /** Replays a request body that has already been read. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.transactionsapi.adapter.in.web.dto;
+
+/**
+ * Outbound DTO for POST /admin/transactions/import: the number of transactions loaded,
+ * and of those left out because another cluster node owns them.
+ */
+public record ImportTransactionsResponse(long imported, long skipped) {}
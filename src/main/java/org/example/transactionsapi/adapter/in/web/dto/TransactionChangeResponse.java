@@ -0,0 +1,15 @@
+package org.example.transactionsapi.adapter.in.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outbound DTO for a change feed entry.
+ * position is the resume token ("epoch-sequence"); before is omitted for creations.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionChangeResponse(
+        long sequence,
+        String position,
+        TransactionResponse before,
+        TransactionResponse after
+) {}
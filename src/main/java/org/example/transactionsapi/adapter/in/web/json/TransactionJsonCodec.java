@@ -0,0 +1,561 @@
+package org.example.transactionsapi.adapter.in.web.json;
+
+import org.example.transactionsapi.adapter.in.web.dto.CreateTransactionRequest;
+import org.example.transactionsapi.adapter.in.web.dto.SumResponse;
+import org.example.transactionsapi.adapter.in.web.dto.TransactionResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Hand-rolled JSON encoder/decoder for the fixed-shape payloads of the hot endpoints.
+ *
+ * Writes directly into a reusable byte buffer and parses request bodies in place,
+ * producing the same JSON Jackson would (field names, parent_id omitted when null,
+ * doubles formatted like {@link Double#toString(double)}). Instances are not
+ * thread-safe — keep one per thread and call {@link #reset()} between messages.
+ *
+ * Reading covers only the request shape clients send in practice, and declines everything
+ * else: malformed JSON, but also valid bodies Jackson might bind differently depending on its
+ * configuration (missing or null amounts, unknown or repeated properties, quoted numbers,
+ * -0 as an integer, lone surrogates). Callers hand declined bodies to Jackson.
+ */
+public final class TransactionJsonCodec {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    /** Largest integral magnitude for which Double.toString still uses plain notation. */
+    private static final double PLAIN_NOTATION_LIMIT = 1e7;
+
+    /** Exact powers of ten usable for correctly rounded decimal parsing. */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] AMOUNT = ascii("\"amount\":");
+    private static final byte[] TYPE = ascii("\"type\":");
+    private static final byte[] PARENT_ID = ascii("\"parent_id\":");
+    private static final byte[] SUM = ascii("{\"sum\":");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static final byte[] KEY_AMOUNT = ascii("amount");
+    private static final byte[] KEY_TYPE = ascii("type");
+    private static final byte[] KEY_PARENT_ID = ascii("parent_id");
+
+    // conservative stand-ins for Jackson's StreamReadConstraints: longer tokens are left to Jackson
+    private static final int MAX_NUMBER_LENGTH = 100;
+    private static final int MAX_STRING_LENGTH = 1_000_000;
+
+    private byte[] buf = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    // parser state, only meaningful while a read is in progress
+    private int pos;
+    private int limit;
+
+    /** Clears the buffer, dropping oversized arrays so a single large message is not retained forever. */
+    public void reset() {
+        if (buf.length > MAX_RETAINED_CAPACITY) {
+            buf = new byte[INITIAL_CAPACITY];
+        }
+        length = 0;
+    }
+
+    /** Backing array of the encoded message; valid bytes are {@code [0, length())}. */
+    public byte[] array() {
+        return buf;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // --- encoding ---
+
+    public void writeTransaction(TransactionResponse response) {
+        if (response.id() != null) {
+            writeRaw(ID);
+            writeLong(response.id());
+            writeByte(',');
+        } else {
+            writeByte('{');
+        }
+        writeRaw(AMOUNT);
+        writeDouble(response.amount());
+        if (response.type() != null) {
+            writeByte(',');
+            writeRaw(TYPE);
+            writeString(response.type());
+        }
+        if (response.parentId() != null) {
+            writeByte(',');
+            writeRaw(PARENT_ID);
+            writeLong(response.parentId());
+        }
+        writeByte('}');
+    }
+
+    public void writeSum(SumResponse response) {
+        writeRaw(SUM);
+        writeDouble(response.sum());
+        writeByte('}');
+    }
+
+    private void writeDouble(double value) {
+        if (!Double.isFinite(value)) {
+            // Jackson's default: non-finite numbers are written as quoted strings
+            writeByte('"');
+            writeAscii(Double.toString(value));
+            writeByte('"');
+            return;
+        }
+        long integral = (long) value;
+        if (integral == value && Math.abs(value) < PLAIN_NOTATION_LIMIT
+                && (integral != 0 || Double.doubleToRawLongBits(value) == 0L)) {
+            writeLong(integral);
+            writeByte('.');
+            writeByte('0');
+            return;
+        }
+        // Rare path (fractions, very large magnitudes): shortest round-trip repr from the JDK
+        writeAscii(Double.toString(value));
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buf[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = length + digits;
+        for (int i = end - 1; i >= length; i--) {
+            buf[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        length = end;
+    }
+
+    private void writeString(String value) {
+        ensureCapacity(value.length() + 2);
+        buf[length++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                ensureCapacity(1);
+                buf[length++] = (byte) c;
+            } else if (c == '"' || c == '\\') {
+                writeByte('\\');
+                writeByte(c);
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                writeCodePoint(Character.toCodePoint(c, value.charAt(++i)));
+            } else {
+                writeCodePoint(c);
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeControl(char c) {
+        switch (c) {
+            case '\n' -> { writeByte('\\'); writeByte('n'); }
+            case '\r' -> { writeByte('\\'); writeByte('r'); }
+            case '\t' -> { writeByte('\\'); writeByte('t'); }
+            case '\b' -> { writeByte('\\'); writeByte('b'); }
+            case '\f' -> { writeByte('\\'); writeByte('f'); }
+            default -> {
+                ensureCapacity(6);
+                buf[length++] = '\\';
+                buf[length++] = 'u';
+                buf[length++] = '0';
+                buf[length++] = '0';
+                buf[length++] = HEX[c >> 4];
+                buf[length++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    /** UTF-8 encodes a non-ASCII code point; lone surrogates become U+FFFD like the JDK encoder. */
+    private void writeCodePoint(int cp) {
+        ensureCapacity(4);
+        if (cp < 0x800) {
+            buf[length++] = (byte) (0xC0 | (cp >> 6));
+            buf[length++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            if (Character.isSurrogate((char) cp)) {
+                cp = 0xFFFD;
+            }
+            buf[length++] = (byte) (0xE0 | (cp >> 12));
+            buf[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buf[length++] = (byte) (0x80 | (cp & 0x3F));
+        } else {
+            buf[length++] = (byte) (0xF0 | (cp >> 18));
+            buf[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            buf[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buf[length++] = (byte) (0x80 | (cp & 0x3F));
+        }
+    }
+
+    private void writeAscii(String s) {
+        ensureCapacity(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buf[length++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeRaw(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buf, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buf[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, length + extra));
+        }
+    }
+
+    // --- decoding ---
+
+    /**
+     * Reads the whole stream into the reusable buffer and parses it as a
+     * {@link CreateTransactionRequest}. On failure the body stays in {@link #array()}.
+     *
+     * @throws IllegalArgumentException if the body is malformed or declined (see above)
+     */
+    public CreateTransactionRequest readCreateRequest(InputStream in) throws IOException {
+        length = 0;
+        int n;
+        while ((n = in.read(buf, length, buf.length - length)) != -1) {
+            length += n;
+            if (length == buf.length) {
+                ensureCapacity(buf.length);
+            }
+        }
+        return readCreateRequest(buf, 0, length);
+    }
+
+    /** Parses a {@link CreateTransactionRequest} from {@code bytes[offset, offset + len)}. */
+    public CreateTransactionRequest readCreateRequest(byte[] bytes, int offset, int len) {
+        byte[] saved = buf;
+        buf = bytes;
+        pos = offset;
+        limit = offset + len;
+        try {
+            return parseCreateRequest();
+        } finally {
+            buf = saved;
+        }
+    }
+
+    private CreateTransactionRequest parseCreateRequest() {
+        double amount = 0.0;
+        String type = null;
+        Long parentId = null;
+        boolean hasAmount = false;
+        boolean hasType = false;
+        boolean hasParentId = false;
+
+        expect('{');
+        if (peekNonWhitespace() == '}') {
+            pos++;
+        } else {
+            while (true) {
+                expect('"');
+                int keyStart = pos;
+                boolean escaped = skipStringBody();
+                int keyEnd = pos - 1;
+                expect(':');
+                if (escaped) {
+                    throw declined("escaped property name");
+                } else if (matches(KEY_AMOUNT, keyStart, keyEnd) && !hasAmount) {
+                    amount = parseAmount();
+                    hasAmount = true;
+                } else if (matches(KEY_TYPE, keyStart, keyEnd) && !hasType) {
+                    type = parseNullableString();
+                    hasType = true;
+                } else if (matches(KEY_PARENT_ID, keyStart, keyEnd) && !hasParentId) {
+                    parentId = parseNullableLong();
+                    hasParentId = true;
+                } else {
+                    throw declined("unknown or repeated property");
+                }
+                int c = nextNonWhitespace();
+                if (c == '}') break;
+                if (c != ',') throw error("expected ',' or '}'");
+            }
+        }
+        if (peekNonWhitespace() != -1) {
+            throw error("trailing content after JSON object");
+        }
+        if (!hasAmount) {
+            throw declined("missing amount");
+        }
+        return new CreateTransactionRequest(amount, type, parentId);
+    }
+
+    private boolean matches(byte[] key, int start, int end) {
+        return Arrays.equals(buf, start, end, key, 0, key.length);
+    }
+
+    private double parseAmount() {
+        int c = peekNonWhitespace();
+        if (c != '-' && !isDigit(c)) throw declined("amount is not a number");
+        int start = pos;
+        boolean negative = buf[pos] == '-';
+        if (negative) pos++;
+        skipLeadingZero();
+        long mantissa = 0;
+        int significant = 0;
+        int fractionDigits = 0;
+        boolean integer = true;
+        boolean fastPath = true;
+        int digits = 0;
+        while (pos < limit && isDigit(buf[pos])) {
+            mantissa = accumulate(mantissa, buf[pos++]);
+            if (mantissa != 0) significant++;
+            digits++;
+        }
+        if (digits == 0) throw error("invalid number");
+        if (pos < limit && buf[pos] == '.') {
+            integer = false;
+            pos++;
+            int fracStart = pos;
+            while (pos < limit && isDigit(buf[pos])) {
+                mantissa = accumulate(mantissa, buf[pos++]);
+                if (mantissa != 0) significant++;
+            }
+            fractionDigits = pos - fracStart;
+            if (fractionDigits == 0) throw error("invalid number");
+        }
+        if (pos < limit && (buf[pos] == 'e' || buf[pos] == 'E')) {
+            integer = false;
+            fastPath = false;
+            pos++;
+            if (pos < limit && (buf[pos] == '+' || buf[pos] == '-')) pos++;
+            int expStart = pos;
+            while (pos < limit && isDigit(buf[pos])) pos++;
+            if (pos == expStart) throw error("invalid number");
+        }
+        if (pos - start > MAX_NUMBER_LENGTH) throw declined("number too long");
+        // Jackson reads -0 as the integer 0 and may or may not keep its sign
+        if (integer && negative && mantissa == 0) throw declined("negative zero integer");
+        if (fastPath && significant <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            // Both operands are exact doubles, so a single division is correctly rounded
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(buf, start, pos - start, StandardCharsets.ISO_8859_1));
+    }
+
+    /** Accumulates a decimal digit, saturating once precision is lost (the slow path takes over). */
+    private static long accumulate(long mantissa, byte digit) {
+        return mantissa < 100_000_000_000_000_000L ? mantissa * 10 + (digit - '0') : mantissa;
+    }
+
+    /** JSON allows a leading zero only as the whole integer part. */
+    private void skipLeadingZero() {
+        if (pos + 1 < limit && buf[pos] == '0' && isDigit(buf[pos + 1])) {
+            throw error("leading zero");
+        }
+    }
+
+    private Long parseNullableLong() {
+        if (consumeNull()) return null;
+        int c = peekNonWhitespace();
+        if (c != '-' && !isDigit(c)) throw declined("parent_id is not a number");
+        boolean negative = buf[pos] == '-';
+        if (negative) pos++;
+        skipLeadingZero();
+        int start = pos;
+        long value = 0;
+        while (pos < limit && isDigit(buf[pos])) {
+            int digit = buf[pos++] - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) throw declined("integer out of range");
+            value = value * 10 + digit;
+        }
+        if (pos == start) throw error("expected integer");
+        if (pos < limit && (buf[pos] == '.' || buf[pos] == 'e' || buf[pos] == 'E')) {
+            throw declined("parent_id is not an integer");
+        }
+        return negative ? -value : value;
+    }
+
+    private String parseNullableString() {
+        if (consumeNull()) return null;
+        if (peekNonWhitespace() != '"') throw declined("type is not a string");
+        pos++;
+        int start = pos;
+        boolean escaped = skipStringBody();
+        int end = pos - 1;
+        return escaped
+                ? unescape(start, end)
+                : new String(buf, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /** Decodes a string body whose escapes and UTF-8 were checked by skipStringBody. */
+    private String unescape(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        int runStart = start;
+        int i = start;
+        while (i < end) {
+            if (buf[i] != '\\') {
+                i++;
+                continue;
+            }
+            sb.append(new String(buf, runStart, i - runStart, StandardCharsets.UTF_8));
+            byte e = buf[i + 1];
+            switch (e) {
+                case '"', '\\', '/' -> sb.append((char) e);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                default -> {
+                    sb.append((char) Integer.parseInt(new String(buf, i + 2, 4, StandardCharsets.ISO_8859_1), 16));
+                    i += 4;
+                }
+            }
+            i += 2;
+            runStart = i;
+        }
+        sb.append(new String(buf, runStart, end - runStart, StandardCharsets.UTF_8));
+        for (int c = 0; c < sb.length(); c++) {
+            char ch = sb.charAt(c);
+            if (Character.isHighSurrogate(ch) && c + 1 < sb.length() && Character.isLowSurrogate(sb.charAt(c + 1))) {
+                c++;
+            } else if (Character.isSurrogate(ch)) {
+                throw declined("lone surrogate escape");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Advances past the closing quote of a string whose opening quote was consumed, checking its
+     * escapes and its UTF-8; returns whether it contained escapes.
+     */
+    private boolean skipStringBody() {
+        int start = pos;
+        boolean escaped = false;
+        boolean ascii = true;
+        while (pos < limit) {
+            byte c = buf[pos++];
+            if (c == '"') {
+                if (pos - 1 - start > MAX_STRING_LENGTH) throw declined("string too long");
+                if (!ascii) checkUtf8(start, pos - 1);
+                return escaped;
+            }
+            if (c == '\\') {
+                escaped = true;
+                skipEscape();
+            } else if (c < 0) {
+                ascii = false;
+            } else if (c < 0x20) {
+                throw error("unescaped control character in string");
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    /** Advances past the escape whose backslash was consumed. */
+    private void skipEscape() {
+        if (pos >= limit) throw error("unterminated string");
+        byte e = buf[pos++];
+        switch (e) {
+            case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> { }
+            case 'u' -> {
+                if (limit - pos < 4) throw error("invalid unicode escape");
+                for (int i = 0; i < 4; i++) {
+                    if (Character.digit(buf[pos++], 16) < 0) throw error("invalid unicode escape");
+                }
+            }
+            default -> throw error("invalid escape");
+        }
+    }
+
+    /** Rejects malformed UTF-8, including encoded surrogates, which the JDK decoder would replace. */
+    private void checkUtf8(int start, int end) {
+        try {
+            StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(buf, start, end - start));
+        } catch (CharacterCodingException ex) {
+            throw declined("invalid UTF-8");
+        }
+    }
+
+    private boolean consumeNull() {
+        if (peekNonWhitespace() == 'n') {
+            expectLiteral("null");
+            return true;
+        }
+        return false;
+    }
+
+    private void expectLiteral(String literal) {
+        if (limit - pos < literal.length()) throw error("unexpected end of input");
+        for (int i = 0; i < literal.length(); i++) {
+            if (buf[pos + i] != literal.charAt(i)) throw error("invalid literal");
+        }
+        pos += literal.length();
+    }
+
+    private void expect(char expected) {
+        if (nextNonWhitespace() != expected) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private int nextNonWhitespace() {
+        int c = peekNonWhitespace();
+        if (c != -1) pos++;
+        return c;
+    }
+
+    private int peekNonWhitespace() {
+        while (pos < limit) {
+            byte c = buf[pos];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return c;
+            pos++;
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Malformed JSON at offset " + pos + ": " + message);
+    }
+
+    private IllegalArgumentException declined(String reason) {
+        return new IllegalArgumentException("Left to Jackson at offset " + pos + ": " + reason);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.transactionsapi.adapter.in.web.json;
+
+import org.example.transactionsapi.adapter.in.web.dto.CreateTransactionRequest;
+import org.example.transactionsapi.adapter.in.web.dto.SumResponse;
+import org.example.transactionsapi.adapter.in.web.dto.TransactionResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+
+/**
+ * Optional message converter that bypasses Jackson for the hot endpoints:
+ * writes {@link TransactionResponse} and {@link SumResponse}, reads {@link CreateTransactionRequest}.
+ *
+ * Enabled with {@code transactions.web.fast-json=true}. Spring Boot registers converter
+ * beans ahead of the defaults, so every other payload still goes through Jackson, and so does
+ * any create request the codec declines: a body is bound exactly as without this converter.
+ */
+@Component
+@ConditionalOnProperty(name = "transactions.web.fast-json", havingValue = "true")
+public class TransactionJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final ThreadLocal<TransactionJsonCodec> CODECS =
+            ThreadLocal.withInitial(TransactionJsonCodec::new);
+
+    private final JsonMapper jsonMapper;
+
+    public TransactionJsonHttpMessageConverter(JsonMapper jsonMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TransactionResponse.class
+                || clazz == SumResponse.class
+                || clazz == CreateTransactionRequest.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == CreateTransactionRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return (clazz == TransactionResponse.class || clazz == SumResponse.class) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        TransactionJsonCodec codec = CODECS.get();
+        codec.reset();
+        try {
+            return codec.readCreateRequest(inputMessage.getBody());
+        } catch (IllegalArgumentException declined) {
+            try {
+                return jsonMapper.readValue(codec.array(), 0, codec.length(), CreateTransactionRequest.class);
+            } catch (JacksonException ex) {
+                throw new HttpMessageNotReadableException("JSON parse error: " + ex.getOriginalMessage(), ex, inputMessage);
+            }
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        TransactionJsonCodec codec = CODECS.get();
+        codec.reset();
+        if (body instanceof TransactionResponse transaction) {
+            codec.writeTransaction(transaction);
+        } else {
+            codec.writeSum((SumResponse) body);
+        }
+        outputMessage.getHeaders().setContentLength(codec.length());
+        outputMessage.getBody().write(codec.array(), 0, codec.length());
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.transactionsapi.adapter.out.changefeed;
+
+import org.example.transactionsapi.domain.model.ChangesNoLongerAvailableException;
+import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.model.TransactionChange;
+import org.example.transactionsapi.domain.port.out.TransactionChangeLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory implementation of {@link TransactionChangeLog} backed by a fixed-size ring buffer.
+ *
+ * Writers only contend with each other for the slot assignment; readers never take the
+ * lock unless they have caught up and need to wait. A reader that falls more than
+ * the buffer size behind finds its slots overwritten and is told to re-synchronise,
+ * as is one resuming from a sequence beyond the latest. Sequences restart with the process,
+ * so each instance draws a random epoch that positions handed to clients carry along.
+ */
+@Component
+public class InMemoryTransactionChangeLog implements TransactionChangeLog {
+
+    private final AtomicReferenceArray<TransactionChange> ring;
+    private final int mask;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, Character.MAX_RADIX);
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+
+    /** Highest sequence whose slot has been written; readers only look at slots up to here. */
+    private volatile long published;
+    private int waiters; // guarded by appendLock
+
+    public InMemoryTransactionChangeLog(@Value("${transactions.changes.buffer-size:65536}") int bufferSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public void append(Transaction before, Transaction after) {
+        appendLock.lock();
+        try {
+            long sequence = published + 1;
+            ring.set(slot(sequence), new TransactionChange(sequence, before, after));
+            published = sequence;
+            if (waiters > 0) {
+                appended.signalAll();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public String epoch() {
+        return epoch;
+    }
+
+    @Override
+    public long latestSequence() {
+        return published;
+    }
+
+    @Override
+    public List<TransactionChange> readAfter(long sequence, int limit, Duration maxWait) {
+        long head = published;
+        if (sequence > head) {
+            // a position this log never handed out, typically one from before a restart
+            throw ChangesNoLongerAvailableException.unknownPosition(sequence, head);
+        }
+        if (head <= sequence) {
+            head = awaitAfter(sequence, maxWait);
+            if (head <= sequence) {
+                return List.of();
+            }
+        }
+
+        long last = Math.min(head, sequence + limit);
+        List<TransactionChange> batch = new ArrayList<>((int) (last - sequence));
+        for (long next = sequence + 1; next <= last; next++) {
+            TransactionChange change = ring.get(slot(next));
+            if (change == null || change.sequence() != next) {
+                // Lapped by writers: whatever was read so far is still valid
+                if (batch.isEmpty()) {
+                    throw new ChangesNoLongerAvailableException(sequence, Math.max(1, published - mask));
+                }
+                break;
+            }
+            batch.add(change);
+        }
+        return batch;
+    }
+
+    private long awaitAfter(long sequence, Duration maxWait) {
+        long remaining = maxWait.toNanos();
+        appendLock.lock();
+        try {
+            waiters++;
+            try {
+                while (published <= sequence && remaining > 0) {
+                    remaining = appended.awaitNanos(remaining);
+                }
+            } finally {
+                waiters--;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            appendLock.unlock();
+        }
+        return published;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.transactionsapi.adapter.out.persistence;
+
+import org.example.transactionsapi.domain.model.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only spill file holding whole transaction trees, one record per tree:
+ * <pre>
+ * length:int count:int
+ * count x { id:long amount:double version:long flags:byte [parent-id:long] [type-length:int type:UTF-8] subtree-sum:double }
+ * </pre>
+ * The root comes first and every transaction carries the sum of its subtree, so a sum over
+ * any cold transaction is answered by reading a single record. Bytes are never rewritten in
+ * place, so positional reads may run concurrently with appends. The file is a scratch area,
+ * not durable storage: it is deleted on close.
+ */
+final class ColdTreeSegment implements Closeable {
+
+    private static final int HAS_PARENT = 1;
+    private static final int HAS_TYPE = 2;
+
+    /** A cold transaction with the precomputed sum of its subtree. */
+    record ColdTransaction(Transaction transaction, double subtreeSum) {}
+
+    /** A tree record as read back: its position, its size in bytes and its transactions, root first. */
+    record Tree(long offset, int length, List<ColdTransaction> transactions) {
+
+        Transaction root() {
+            return transactions.get(0).transaction();
+        }
+    }
+
+    private final FileChannel channel;
+    private long end;
+
+    ColdTreeSegment(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "cold-trees-", ".seg");
+        this.channel = FileChannel.open(file, READ, WRITE, DELETE_ON_CLOSE);
+    }
+
+    /** Appends a tree (root first) and returns the offset of its record. Callers serialise appends. */
+    long append(List<ColdTransaction> tree) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Integer.BYTES * 2 + 48 * tree.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // length, patched below
+        out.writeInt(tree.size());
+        for (ColdTransaction cold : tree) {
+            Transaction transaction = cold.transaction();
+            out.writeLong(transaction.id());
+            out.writeDouble(transaction.amount());
+            out.writeLong(transaction.version());
+            out.writeByte((transaction.parentId() != null ? HAS_PARENT : 0) | (transaction.type() != null ? HAS_TYPE : 0));
+            if (transaction.parentId() != null) {
+                out.writeLong(transaction.parentId());
+            }
+            if (transaction.type() != null) {
+                byte[] type = transaction.type().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(type.length);
+                out.write(type);
+            }
+            out.writeDouble(cold.subtreeSum());
+        }
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - Integer.BYTES);
+
+        long offset = end;
+        while (record.hasRemaining()) {
+            channel.write(record, offset + record.position());
+        }
+        end = offset + record.limit();
+        return offset;
+    }
+
+    Tree read(long offset) throws IOException {
+        int length = readFully(ByteBuffer.allocate(Integer.BYTES), offset).getInt(0);
+        byte[] body = readFully(ByteBuffer.allocate(length), offset + Integer.BYTES).array();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        int count = in.readInt();
+        List<ColdTransaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = in.readLong();
+            double amount = in.readDouble();
+            long version = in.readLong();
+            int flags = in.readUnsignedByte();
+            Long parentId = (flags & HAS_PARENT) != 0 ? in.readLong() : null;
+            String type = (flags & HAS_TYPE) != 0 ? new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8) : null;
+            transactions.add(new ColdTransaction(new Transaction(id, amount, type, parentId, version), in.readDouble()));
+        }
+        return new Tree(offset, Integer.BYTES + length, transactions);
+    }
+
+    /** Bytes written so far, live and dead. */
+    long size() {
+        return end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Cold segment ends before record at " + position);
+            }
+        }
+        return buffer;
+    }
+}
@@ -2,13 +2,19 @@ package org.example.transactionsapi.adapter.out.persistence;
 
 import org.example.transactionsapi.domain.model.Transaction;
 import org.example.transactionsapi.domain.port.out.TransactionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * In-memory implementation of {@link TransactionRepository}.
@@ -16,15 +22,60 @@ import java.util.concurrent.ConcurrentHashMap;
  * Swap this class with any other implementation (MongoDB, Redis, etc.) without
  * touching any domain or port code — the only requirement is implementing the
  * {@link TransactionRepository} interface.
+ *
+ * Lookups by parent and by type go through secondary indexes of ids, kept up to date
+ * inside the per-key compute of each write. Index hits are re-checked against the
+ * stored transaction, so a reader racing a write never sees a wrong match.
+ *
+ * Active unless transactions.persistence.type selects another store.
  */
 @Repository
+@ConditionalOnProperty(name = "transactions.persistence.type", havingValue = "memory", matchIfMissing = true)
 public class InMemoryTransactionRepository implements TransactionRepository {
 
     private final Map<Long, Transaction> storage = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> idsByParent = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> idsByType = new ConcurrentHashMap<>();
 
     @Override
     public void save(Transaction transaction) {
-        storage.put(transaction.id(), transaction);
+        storage.compute(transaction.id(), (id, previous) -> {
+            reindex(previous, transaction);
+            return transaction;
+        });
+    }
+
+    @Override
+    public boolean replace(Transaction transaction, long expectedVersion) {
+        boolean[] replaced = {false};
+        storage.computeIfPresent(transaction.id(), (id, current) -> {
+            if (current.version() != expectedVersion) {
+                return current;
+            }
+            reindex(current, transaction);
+            replaced[0] = true;
+            return transaction;
+        });
+        return replaced[0];
+    }
+
+    /**
+     * Stores everything first and indexes it in a single pass at the end,
+     * also when the source fails halfway, so whatever was stored is findable.
+     */
+    @Override
+    public void bulkLoad(Iterator<Transaction> transactions) {
+        try {
+            while (transactions.hasNext()) {
+                Transaction transaction = transactions.next();
+                Transaction previous = storage.put(transaction.id(), transaction);
+                if (previous != null) {
+                    unindex(previous);
+                }
+            }
+        } finally {
+            storage.values().forEach(this::index);
+        }
     }
 
     @Override
@@ -34,20 +85,92 @@ public class InMemoryTransactionRepository implements TransactionRepository {
 
     @Override
     public List<Transaction> findByType(String type) {
-        return storage.values().stream()
-                .filter(t -> type.equals(t.type()))
-                .toList();
+        return lookup(idsByType.get(type), t -> type.equals(t.type()));
     }
 
     @Override
     public List<Transaction> findByParentId(Long parentId) {
-        return storage.values().stream()
-                .filter(t -> parentId.equals(t.parentId()))
-                .toList();
+        return lookup(idsByParent.get(parentId), t -> parentId.equals(t.parentId()));
+    }
+
+    /** Iterates the live map; concurrent writes may or may not be observed. */
+    @Override
+    public void forEach(Consumer<Transaction> action) {
+        storage.values().forEach(action);
+    }
+
+    /** Removes a transaction, e.g. when a tiered store moves it out of memory. */
+    public void remove(Long id) {
+        storage.computeIfPresent(id, (key, current) -> {
+            unindex(current);
+            return null;
+        });
+    }
+
+    public int size() {
+        return storage.size();
     }
 
     /** Resets all stored transactions — used by integration tests to isolate test cases. */
     public void clear() {
         storage.clear();
+        idsByParent.clear();
+        idsByType.clear();
+    }
+
+    private List<Transaction> lookup(Set<Long> ids, Predicate<Transaction> matches) {
+        if (ids == null) {
+            return List.of();
+        }
+        List<Transaction> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Transaction transaction = storage.get(id);
+            if (transaction != null && matches.test(transaction)) {
+                found.add(transaction);
+            }
+        }
+        return found;
+    }
+
+    private void reindex(Transaction previous, Transaction next) {
+        if (previous != null) {
+            if (!Objects.equals(previous.parentId(), next.parentId())) {
+                remove(idsByParent, previous.parentId(), previous.id());
+            }
+            if (!Objects.equals(previous.type(), next.type())) {
+                remove(idsByType, previous.type(), previous.id());
+            }
+        }
+        index(next);
+    }
+
+    private void index(Transaction transaction) {
+        add(idsByParent, transaction.parentId(), transaction.id());
+        add(idsByType, transaction.type(), transaction.id());
+    }
+
+    private void unindex(Transaction transaction) {
+        remove(idsByParent, transaction.parentId(), transaction.id());
+        remove(idsByType, transaction.type(), transaction.id());
+    }
+
+    private static <K> void add(Map<K, Set<Long>> index, K key, Long id) {
+        if (key != null) {
+            // inside compute, so a concurrent remove cannot drop the set between lookup and add
+            index.compute(key, (k, ids) -> {
+                Set<Long> updated = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                updated.add(id);
+                return updated;
+            });
+        }
+    }
+
+    private static <K> void remove(Map<K, Set<Long>> index, K key, Long id) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
     }
 }
@@ -0,0 +1,32 @@
+package org.example.transactionsapi.adapter.out.persistence;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pool for {@link JdbcTransactionRepository}, built from transactions.persistence.jdbc.*.
+ * Only active with transactions.persistence.type=jdbc.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transactions.persistence.type", havingValue = "jdbc")
+public class JdbcPersistenceConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource transactionsDataSource(
+            @Value("${transactions.persistence.jdbc.url}") String url,
+            @Value("${transactions.persistence.jdbc.username:}") String username,
+            @Value("${transactions.persistence.jdbc.password:}") String password,
+            @Value("${transactions.persistence.jdbc.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("transactions");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(maximumPoolSize);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.transactionsapi.adapter.out.persistence;
+
+import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.model.TransactionIdTakenException;
+import org.example.transactionsapi.domain.port.out.TransactionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * JDBC implementation of {@link TransactionRepository} for SQL databases supporting recursive
+ * common table expressions, VARCHAR without a length and CREATE INDEX IF NOT EXISTS
+ * (H2, PostgreSQL, SQLite). The type column is unbounded like the API's type, up to the
+ * database's own limit on an index entry (about 2.7 kB on PostgreSQL).
+ *
+ * Sums are pushed down to the database as a single recursive query over the parent_id index,
+ * instead of one findByParentId round trip per node. The schema is created on startup
+ * if missing. Active with transactions.persistence.type=jdbc.
+ */
+@Repository
+@ConditionalOnProperty(name = "transactions.persistence.type", havingValue = "jdbc")
+public class JdbcTransactionRepository implements TransactionRepository {
+
+    private static final String COLUMNS = "id, amount, type, parent_id, version";
+
+    private static final String INSERT =
+            "INSERT INTO transactions (amount, type, parent_id, version, id) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE =
+            "UPDATE transactions SET amount = ?, type = ?, parent_id = ?, version = ? WHERE id = ?";
+    private static final String REPLACE = UPDATE + " AND version = ?";
+
+    // UNION rather than UNION ALL: on databases that discard rows already produced, a parent cycle terminates
+    private static final String SUM_SUBTREE = """
+            WITH RECURSIVE subtree (id, amount) AS (
+                SELECT id, amount FROM transactions WHERE id = ?
+                UNION
+                SELECT t.id, t.amount FROM transactions t JOIN subtree s ON t.parent_id = s.id
+            )
+            SELECT COUNT(*), COALESCE(SUM(amount), 0) FROM subtree
+            """;
+
+    private static final int BATCH_SIZE = 500;
+    private static final int STREAMING_FETCH_SIZE = 1000;
+
+    private static final RowMapper<Transaction> ROW_MAPPER = (rs, rowNum) -> new Transaction(
+            rs.getLong("id"),
+            rs.getDouble("amount"),
+            rs.getString("type"),
+            rs.getObject("parent_id", Long.class),
+            rs.getLong("version"));
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate streaming;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public JdbcTransactionRepository(DataSource dataSource) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/transactions-schema.sql")).execute(dataSource);
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.streaming = new JdbcTemplate(dataSource);
+        this.streaming.setFetchSize(STREAMING_FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Plain INSERT: a taken id fails with TransactionIdTakenException instead of overwriting a row
+     * that another instance sharing the database, or this one before a restart, has already stored.
+     */
+    @Override
+    public void save(Transaction transaction) {
+        try {
+            jdbc.update(INSERT, ps -> bind(ps, transaction));
+        } catch (DuplicateKeyException ex) {
+            throw new TransactionIdTakenException(transaction.id());
+        }
+    }
+
+    /**
+     * Upserts in batches: one batched UPDATE, then one batched INSERT for the rows it did not find.
+     *
+     * Drivers may answer a batch with SUCCESS_NO_INFO instead of update counts; whether those
+     * rows exist is then looked up by id rather than guessed from the count.
+     */
+    @Override
+    public void saveAll(Collection<Transaction> transactions) {
+        List<Transaction> batch = new ArrayList<>(transactions);
+        int[][] updated = jdbc.batchUpdate(UPDATE, batch, BATCH_SIZE, JdbcTransactionRepository::bind);
+
+        List<Transaction> missing = new ArrayList<>();
+        List<Transaction> unknown = new ArrayList<>();
+        int index = 0;
+        for (int[] counts : updated) {
+            for (int count : counts) {
+                if (count == 0) {
+                    missing.add(batch.get(index));
+                } else if (count == Statement.SUCCESS_NO_INFO) {
+                    unknown.add(batch.get(index));
+                }
+                index++;
+            }
+        }
+        missing.addAll(absent(unknown));
+        if (!missing.isEmpty()) {
+            jdbc.batchUpdate(INSERT, missing, BATCH_SIZE, JdbcTransactionRepository::bind);
+        }
+    }
+
+    @Override
+    public boolean replace(Transaction transaction, long expectedVersion) {
+        return jdbc.update(REPLACE, ps -> {
+            bind(ps, transaction);
+            ps.setLong(6, expectedVersion);
+        }) == 1;
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM transactions WHERE id = ?", ROW_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Transaction> findByType(String type) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM transactions WHERE type = ?", ROW_MAPPER, type);
+    }
+
+    @Override
+    public List<Transaction> findByParentId(Long parentId) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM transactions WHERE parent_id = ?", ROW_MAPPER, parentId);
+    }
+
+    /**
+     * Streams the table with a bounded fetch size instead of loading it into a list.
+     *
+     * The query runs in a read-only transaction, i.e. with auto-commit off: PostgreSQL ignores the
+     * fetch size and buffers the whole result otherwise.
+     */
+    @Override
+    public void forEach(Consumer<Transaction> action) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                streaming.query("SELECT " + COLUMNS + " FROM transactions",
+                        (RowCallbackHandler) rs -> action.accept(ROW_MAPPER.mapRow(rs, 0))));
+    }
+
+    /** The table outlives this process and may be written by others. */
+    @Override
+    public boolean isProcessLocal() {
+        return false;
+    }
+
+    @Override
+    public long maxId() {
+        return jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM transactions", Long.class);
+    }
+
+    @Override
+    public OptionalDouble sumSubtree(Long rootId) {
+        return jdbc.query(SUM_SUBTREE, rs -> {
+            rs.next();
+            return rs.getLong(1) == 0 ? OptionalDouble.empty() : OptionalDouble.of(rs.getDouble(2));
+        }, rootId);
+    }
+
+    /** The given transactions whose ids are not stored, looked up BATCH_SIZE ids per query. */
+    private List<Transaction> absent(List<Transaction> transactions) {
+        List<Transaction> absent = new ArrayList<>();
+        for (int from = 0; from < transactions.size(); from += BATCH_SIZE) {
+            List<Transaction> chunk = transactions.subList(from, Math.min(from + BATCH_SIZE, transactions.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            Set<Long> stored = new HashSet<>(jdbc.queryForList(
+                    "SELECT id FROM transactions WHERE id IN (" + placeholders + ")",
+                    Long.class, chunk.stream().map(Transaction::id).toArray()));
+            for (Transaction transaction : chunk) {
+                if (!stored.contains(transaction.id())) {
+                    absent.add(transaction);
+                }
+            }
+        }
+        return absent;
+    }
+
+    /** Binds the first five parameters shared by INSERT and UPDATE (id last). */
+    private static void bind(PreparedStatement ps, Transaction transaction) throws SQLException {
+        ps.setDouble(1, transaction.amount());
+        ps.setString(2, transaction.type());
+        if (transaction.parentId() == null) {
+            ps.setNull(3, Types.BIGINT);
+        } else {
+            ps.setLong(3, transaction.parentId());
+        }
+        ps.setLong(4, transaction.version());
+        ps.setLong(5, transaction.id());
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.transactionsapi.adapter.out.persistence;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long to long with linear probing, for indexes over
+ * millions of entries: two parallel primitive arrays, no boxing and no per-entry objects,
+ * about 32 bytes per entry at the maximum load factor. Not thread-safe.
+ */
+final class LongLongHashMap {
+
+    /** Reserved key marking a free slot. */
+    static final long FREE = Long.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    LongLongHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Bytes held by the backing arrays. */
+    long footprint() {
+        return 16L * keys.length;
+    }
+
+    boolean containsKey(long key) {
+        return keys[indexOf(key)] != FREE;
+    }
+
+    /** Returns the value mapped to key, or missing if there is none. */
+    long get(long key, long missing) {
+        int index = indexOf(key);
+        return keys[index] != FREE ? values[index] : missing;
+    }
+
+    void put(long key, long value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Reserved key " + key);
+        }
+        int index = indexOf(key);
+        values[index] = value;
+        if (keys[index] == FREE) {
+            keys[index] = key;
+            // keep the load factor at or below one half so probe sequences stay short
+            if (++size > (mask + 1) >>> 1) {
+                rehash(keys.length << 1);
+            }
+        }
+    }
+
+    void remove(long key) {
+        int index = indexOf(key);
+        if (keys[index] == FREE) {
+            return;
+        }
+        // backward-shift deletion: pull later entries of the probe run into the gap
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+        size--;
+    }
+
+    void forEach(EntryConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    void clear() {
+        allocate(MIN_CAPACITY);
+        size = 0;
+    }
+
+    private int indexOf(long key) {
+        int index = slot(key);
+        while (keys[index] != FREE && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private int slot(long key) {
+        // Fibonacci hashing spreads sequential ids over the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,657 @@
+package org.example.transactionsapi.adapter.out.persistence;
+
+import org.example.transactionsapi.adapter.out.persistence.ColdTreeSegment.ColdTransaction;
+import org.example.transactionsapi.adapter.out.persistence.ColdTreeSegment.Tree;
+import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.port.out.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier {@link TransactionRepository}: recently used trees live in memory, settled ones
+ * are spilled whole to an append-only file on disk.
+ *
+ * A tree is always entirely in one tier. Once the hot tier exceeds its budget, the least
+ * recently used trees are written out as single records carrying every node's subtree sum.
+ * Sums over cold trees are answered from that record without loading the tree. findById,
+ * findByParentId and any write touching a cold tree fault the whole tree back in.
+ *
+ * The budget bounds the transactions kept on the heap, not the heap itself: the cold tier
+ * still indexes every spilled transaction in memory, by id and by type, in primitive arrays
+ * taking 40 to 130 bytes per transaction depending on how full they are (see
+ * {@link #coldIndexBytes()}). Heap use therefore still grows with total ingest, only at a
+ * fraction of the rate of keeping the transactions themselves.
+ *
+ * Hot-tier reads and writes share the read lock. Evictions are serialised among themselves:
+ * victims are picked under the read lock, written to the spill file without a tier lock, and
+ * only then swapped out of the hot tier under a brief write lock, unless they were used or
+ * changed meanwhile. Compaction copies the file the same way. Faulting a tree back in takes
+ * the write lock. The spill file is scratch space, deleted on shutdown: this is not durable storage.
+ * Active with transactions.persistence.type=tiered.
+ */
+@Repository
+@ConditionalOnProperty(name = "transactions.persistence.type", havingValue = "tiered")
+public class TieredTransactionRepository implements TransactionRepository, Closeable {
+
+    private static final long NOT_COLD = -1;
+    private static final long DEFAULT_MIN_COMPACTION_BYTES = 16L * 1024 * 1024;
+
+    private final InMemoryTransactionRepository hot = new InMemoryTransactionRepository();
+    private final int maxHotTransactions;
+    private final int evictDownTo;
+    private final Path directory;
+    private final long minCompactionBytes;
+
+    private final ReadWriteLock tiers = new ReentrantReadWriteLock();
+    /** Held while evicting; the only appends to, and replacements of, the spill file happen under it. */
+    private final Lock evicting = new ReentrantLock();
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Long, Long> lastUseByRoot = new ConcurrentHashMap<>();
+    private final AtomicInteger runningExports = new AtomicInteger();
+
+    // cold tier, guarded by tiers
+    private ColdTreeSegment segment;
+    private long liveColdBytes;
+    private final LongLongHashMap coldRecordById = new LongLongHashMap();
+    private final LongLongHashMap coldRecordByRoot = new LongLongHashMap();
+    private final Map<String, IdsAndRecords> coldIdsByType = new HashMap<>();
+    /** Cold roots whose parent id does not exist (yet); creating that parent faults them back in. */
+    private final Map<Long, Set<Long>> coldRootsByMissingParent = new HashMap<>();
+
+    public TieredTransactionRepository(
+            @Value("${transactions.persistence.tiered.max-hot-transactions:1000000}") int maxHotTransactions,
+            @Value("${transactions.persistence.tiered.directory:${java.io.tmpdir}/transactions-cold}") Path directory) {
+        this(maxHotTransactions, directory, DEFAULT_MIN_COMPACTION_BYTES);
+    }
+
+    TieredTransactionRepository(int maxHotTransactions, Path directory, long minCompactionBytes) {
+        this.maxHotTransactions = maxHotTransactions;
+        // evict in batches so the LRU ordering is not recomputed on every write
+        this.evictDownTo = (int) (maxHotTransactions * 0.9);
+        this.directory = directory;
+        this.minCompactionBytes = minCompactionBytes;
+        this.segment = openSegment(directory);
+    }
+
+    @Override
+    public void save(Transaction transaction) {
+        write(transaction, () -> {
+            hot.save(transaction);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean replace(Transaction transaction, long expectedVersion) {
+        return write(transaction, () -> hot.replace(transaction, expectedVersion));
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        Optional<Transaction> found;
+        tiers.readLock().lock();
+        try {
+            found = hot.findById(id);
+            if (found.isPresent() || !coldRecordById.containsKey(id)) {
+                found.ifPresent(t -> touch(t.id()));
+                return found;
+            }
+        } finally {
+            tiers.readLock().unlock();
+        }
+        tiers.writeLock().lock();
+        try {
+            faultIn(id);
+            found = hot.findById(id);
+            found.ifPresent(t -> touch(t.id()));
+        } finally {
+            tiers.writeLock().unlock();
+        }
+        evictIfOverBudget();
+        return found;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        tiers.readLock().lock();
+        try {
+            return hot.existsById(id) || coldRecordById.containsKey(id);
+        } finally {
+            tiers.readLock().unlock();
+        }
+    }
+
+    /** Cold matches are read from their tree records without faulting the trees in. */
+    @Override
+    public List<Transaction> findByType(String type) {
+        tiers.readLock().lock();
+        try {
+            List<Transaction> found = new ArrayList<>(hot.findByType(type));
+            IdsAndRecords cold = coldIdsByType.get(type);
+            if (cold == null) {
+                return found;
+            }
+            Map<Long, Set<Long>> idsByRecord = new HashMap<>();
+            for (int i = 0; i < cold.size; i++) {
+                // entries left behind by trees that were faulted in or rewritten point at a dead record
+                if (coldRecordById.get(cold.ids[i], NOT_COLD) == cold.records[i]) {
+                    idsByRecord.computeIfAbsent(cold.records[i], r -> new HashSet<>()).add(cold.ids[i]);
+                }
+            }
+            for (Map.Entry<Long, Set<Long>> record : idsByRecord.entrySet()) {
+                for (ColdTransaction c : read(segment, record.getKey()).transactions()) {
+                    if (record.getValue().contains(c.transaction().id())) {
+                        found.add(c.transaction());
+                    }
+                }
+            }
+            return found;
+        } finally {
+            tiers.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByParentId(Long parentId) {
+        tiers.readLock().lock();
+        try {
+            if (!coldRecordById.containsKey(parentId) && !coldRootsByMissingParent.containsKey(parentId)) {
+                return hot.findByParentId(parentId);
+            }
+        } finally {
+            tiers.readLock().unlock();
+        }
+        List<Transaction> children;
+        tiers.writeLock().lock();
+        try {
+            faultIn(parentId);
+            faultInRootsWaitingFor(parentId);
+            children = hot.findByParentId(parentId);
+        } finally {
+            tiers.writeLock().unlock();
+        }
+        evictIfOverBudget();
+        return children;
+    }
+
+    /**
+     * Visits a consistent snapshot: the hot transactions are collected and the cold records
+     * located under a brief exclusive lock, then streamed without holding it. The spill file
+     * is not compacted while an export runs, so the located records stay valid.
+     */
+    @Override
+    public void forEach(Consumer<Transaction> action) {
+        List<Transaction> hotSnapshot;
+        long[] coldRecords;
+        ColdTreeSegment pinned;
+        tiers.writeLock().lock();
+        try {
+            hotSnapshot = new ArrayList<>(hot.size());
+            hot.forEach(hotSnapshot::add);
+            coldRecords = new long[coldRecordByRoot.size()];
+            int[] next = {0};
+            coldRecordByRoot.forEach((root, record) -> coldRecords[next[0]++] = record);
+            pinned = segment;
+            runningExports.incrementAndGet();
+        } finally {
+            tiers.writeLock().unlock();
+        }
+        try {
+            hotSnapshot.forEach(action);
+            Arrays.sort(coldRecords); // sequential file reads
+            for (long record : coldRecords) {
+                read(pinned, record).transactions().forEach(c -> action.accept(c.transaction()));
+            }
+        } finally {
+            runningExports.decrementAndGet();
+        }
+    }
+
+    /** Answered from the precomputed sums of cold trees; hot trees are left to the domain traversal. */
+    @Override
+    public OptionalDouble sumSubtree(Long rootId) {
+        tiers.readLock().lock();
+        try {
+            long record = coldRecordById.get(rootId, NOT_COLD);
+            if (record == NOT_COLD) {
+                return OptionalDouble.empty();
+            }
+            for (ColdTransaction c : read(segment, record).transactions()) {
+                if (c.transaction().id().equals(rootId)) {
+                    return OptionalDouble.of(c.subtreeSum());
+                }
+            }
+            throw new IllegalStateException("Cold index points transaction " + rootId + " at the wrong record");
+        } finally {
+            tiers.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        tiers.writeLock().lock();
+        try {
+            segment.close();
+        } finally {
+            tiers.writeLock().unlock();
+        }
+    }
+
+    int hotSize() {
+        return hot.size();
+    }
+
+    int coldSize() {
+        tiers.readLock().lock();
+        try {
+            return coldRecordById.size();
+        } finally {
+            tiers.readLock().unlock();
+        }
+    }
+
+    /** Heap held by the cold-tier indexes, which grows with every transaction spilled. */
+    long coldIndexBytes() {
+        tiers.readLock().lock();
+        try {
+            long bytes = coldRecordById.footprint() + coldRecordByRoot.footprint();
+            for (IdsAndRecords ids : coldIdsByType.values()) {
+                bytes += ids.footprint();
+            }
+            return bytes;
+        } finally {
+            tiers.readLock().unlock();
+        }
+    }
+
+    long segmentBytes() {
+        tiers.readLock().lock();
+        try {
+            return segment.size();
+        } finally {
+            tiers.readLock().unlock();
+        }
+    }
+
+    // --- tier transitions ---
+
+    /**
+     * Applies a write to the hot tier. If the write touches a cold tree (the transaction itself,
+     * its new parent, or orphans waiting for it as their parent), those trees are faulted in first.
+     */
+    private <T> T write(Transaction transaction, Supplier<T> action) {
+        T result = null;
+        boolean done = false;
+        tiers.readLock().lock();
+        try {
+            if (!touchesColdTree(transaction)) {
+                result = action.get();
+                touch(transaction.id());
+                done = true;
+            }
+        } finally {
+            tiers.readLock().unlock();
+        }
+        if (!done) {
+            tiers.writeLock().lock();
+            try {
+                faultIn(transaction.id());
+                if (transaction.parentId() != null) {
+                    faultIn(transaction.parentId());
+                }
+                faultInRootsWaitingFor(transaction.id());
+                result = action.get();
+                touch(transaction.id());
+            } finally {
+                tiers.writeLock().unlock();
+            }
+        }
+        evictIfOverBudget();
+        return result;
+    }
+
+    private boolean touchesColdTree(Transaction transaction) {
+        return coldRecordById.containsKey(transaction.id())
+                || (transaction.parentId() != null && coldRecordById.containsKey(transaction.parentId()))
+                || coldRootsByMissingParent.containsKey(transaction.id());
+    }
+
+    /** Loads the cold tree containing id, if any, back into the hot tier. Requires the write lock. */
+    private void faultIn(Long id) {
+        long record = coldRecordById.get(id, NOT_COLD);
+        if (record == NOT_COLD) {
+            return;
+        }
+        Tree tree = read(segment, record);
+        for (ColdTransaction c : tree.transactions()) {
+            coldRecordById.remove(c.transaction().id());
+            hot.save(c.transaction());
+        }
+        Transaction root = tree.root();
+        coldRecordByRoot.remove(root.id());
+        if (root.parentId() != null) {
+            Set<Long> waiting = coldRootsByMissingParent.get(root.parentId());
+            if (waiting != null && waiting.remove(root.id()) && waiting.isEmpty()) {
+                coldRootsByMissingParent.remove(root.parentId());
+            }
+        }
+        liveColdBytes -= tree.length();
+        touch(root.id());
+    }
+
+    private void faultInRootsWaitingFor(Long parentId) {
+        Set<Long> waiting = coldRootsByMissingParent.remove(parentId);
+        if (waiting != null) {
+            waiting.forEach(this::faultIn);
+        }
+    }
+
+    private void evictIfOverBudget() {
+        if (hot.size() <= maxHotTransactions) {
+            return;
+        }
+        evicting.lock();
+        try {
+            List<Victim> victims = pickVictims();
+            if (victims.isEmpty()) {
+                return;
+            }
+            long[] records = new long[victims.size()];
+            long[] ends = new long[victims.size()];
+            for (int i = 0; i < victims.size(); i++) {
+                records[i] = append(segment, victims.get(i).tree());
+                ends[i] = segment.size();
+            }
+            tiers.writeLock().lock();
+            try {
+                for (int i = 0; i < victims.size(); i++) {
+                    spill(victims.get(i), records[i], ends[i] - records[i]);
+                }
+            } finally {
+                tiers.writeLock().unlock();
+            }
+            compactIfMostlyDead();
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    /** The least recently used whole trees, until enough are picked to get down to evictDownTo. */
+    private List<Victim> pickVictims() {
+        tiers.readLock().lock();
+        try {
+            int excess = hot.size() - evictDownTo;
+            if (hot.size() <= maxHotTransactions) {
+                return List.of();
+            }
+            List<Map.Entry<Long, Long>> leastRecentlyUsed = new ArrayList<>(lastUseByRoot.entrySet());
+            leastRecentlyUsed.sort(Map.Entry.comparingByValue());
+            List<Victim> victims = new ArrayList<>();
+            int picked = 0;
+            for (Map.Entry<Long, Long> entry : leastRecentlyUsed) {
+                if (picked >= excess) {
+                    break;
+                }
+                Optional<Transaction> root = hot.findById(entry.getKey()).filter(this::isHotRoot);
+                if (root.isEmpty()) {
+                    lastUseByRoot.remove(entry.getKey(), entry.getValue()); // no longer a root
+                    continue;
+                }
+                List<ColdTransaction> tree = coldTree(root.get());
+                victims.add(new Victim(entry.getValue(), tree));
+                picked += tree.size();
+            }
+            return victims;
+        } finally {
+            tiers.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops a victim's tree from memory in favour of its spilled record, unless the tree was used
+     * or changed since it was picked; the record is then left dead in the file. Requires the write lock.
+     */
+    private void spill(Victim victim, long record, long length) {
+        Transaction root = victim.tree().get(0).transaction();
+        if (!lastUseByRoot.remove(root.id(), victim.lastUse())) {
+            return;
+        }
+        // writes to the tree touch its root, but moving a transaction out of it touches the new root only
+        if (!isHotRoot(root) || !transactionsOf(coldTree(root)).equals(transactionsOf(victim.tree()))) {
+            return;
+        }
+        index(victim.tree(), record);
+        liveColdBytes += length;
+        if (root.parentId() != null) {
+            coldRootsByMissingParent.computeIfAbsent(root.parentId(), p -> new HashSet<>()).add(root.id());
+        }
+        victim.tree().forEach(c -> hot.remove(c.transaction().id()));
+    }
+
+    private boolean isHotRoot(Transaction transaction) {
+        return hot.findById(transaction.id()).filter(transaction::equals).isPresent()
+                && (transaction.parentId() == null || !hot.existsById(transaction.parentId()));
+    }
+
+    /** The hot tree under root with every node's subtree sum, root first. */
+    private List<ColdTransaction> coldTree(Transaction root) {
+        List<Transaction> preorder = new ArrayList<>();
+        Map<Long, List<Transaction>> childrenById = new HashMap<>();
+        Deque<Transaction> pending = new ArrayDeque<>();
+        Set<Long> visited = new HashSet<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Transaction transaction = pending.pop();
+            if (!visited.add(transaction.id())) {
+                continue;
+            }
+            preorder.add(transaction);
+            List<Transaction> children = hot.findByParentId(transaction.id());
+            childrenById.put(transaction.id(), children);
+            children.forEach(pending::push);
+        }
+
+        // children before parents, adding in the same order as the domain traversal
+        Map<Long, Double> subtreeSums = new HashMap<>();
+        for (int i = preorder.size() - 1; i >= 0; i--) {
+            Transaction transaction = preorder.get(i);
+            double sum = transaction.amount();
+            for (Transaction child : childrenById.get(transaction.id())) {
+                sum += subtreeSums.getOrDefault(child.id(), 0.0);
+            }
+            subtreeSums.put(transaction.id(), sum);
+        }
+        List<ColdTransaction> tree = new ArrayList<>(preorder.size());
+        for (Transaction transaction : preorder) {
+            tree.add(new ColdTransaction(transaction, subtreeSums.get(transaction.id())));
+        }
+        return tree;
+    }
+
+    private static Set<Transaction> transactionsOf(List<ColdTransaction> tree) {
+        Set<Transaction> transactions = new HashSet<>();
+        tree.forEach(c -> transactions.add(c.transaction()));
+        return transactions;
+    }
+
+    /**
+     * Rewrites the live records into a fresh file once most of the current one is dead. Records are
+     * copied without a tier lock; the indexes are then pointed at the copies under the write lock.
+     * Requires the evicting lock, so no records are added meanwhile.
+     */
+    private void compactIfMostlyDead() {
+        ColdTreeSegment old;
+        long[] live;
+        tiers.readLock().lock();
+        try {
+            long size = segment.size();
+            if (size < minCompactionBytes || liveColdBytes * 2 > size || runningExports.get() > 0) {
+                return;
+            }
+            old = segment;
+            live = new long[coldRecordByRoot.size()];
+            int[] next = {0};
+            coldRecordByRoot.forEach((root, record) -> live[next[0]++] = record);
+        } finally {
+            tiers.readLock().unlock();
+        }
+        Arrays.sort(live); // sequential file reads
+        ColdTreeSegment compacted = openSegment(directory);
+        LongLongHashMap moved = new LongLongHashMap();
+        for (long record : live) {
+            moved.put(record, append(compacted, read(old, record).transactions()));
+        }
+
+        tiers.writeLock().lock();
+        try {
+            if (runningExports.get() > 0) {
+                close(compacted); // an export started meanwhile and still reads the old file
+                return;
+            }
+            // trees faulted in meanwhile have left the indexes; every record still in them was copied
+            coldIdsByType.values().removeIf(ids -> ids.retainLive(coldRecordById, moved) == 0);
+            coldRecordById.forEach((id, record) -> coldRecordById.put(id, moved.get(record, NOT_COLD)));
+            coldRecordByRoot.forEach((root, record) -> coldRecordByRoot.put(root, moved.get(record, NOT_COLD)));
+            segment = compacted;
+            // records are copied byte for byte, so liveColdBytes is unchanged
+        } finally {
+            tiers.writeLock().unlock();
+        }
+        close(old);
+    }
+
+    private void index(List<ColdTransaction> tree, long record) {
+        for (ColdTransaction c : tree) {
+            Transaction transaction = c.transaction();
+            coldRecordById.put(transaction.id(), record);
+            if (transaction.type() != null) {
+                coldIdsByType.computeIfAbsent(transaction.type(), t -> new IdsAndRecords()).add(transaction.id(), record);
+            }
+        }
+        coldRecordByRoot.put(tree.get(0).transaction().id(), record);
+    }
+
+    /** Marks the tree containing id as just used. Trees are whole in the hot tier, so the walk stays in memory. */
+    private void touch(Long id) {
+        Long current = id;
+        Set<Long> visited = null;
+        while (true) {
+            Long parentId = hot.findById(current).map(Transaction::parentId).orElse(null);
+            if (parentId == null || !hot.existsById(parentId)) {
+                break;
+            }
+            if (visited == null) {
+                visited = new HashSet<>();
+            }
+            if (!visited.add(current)) {
+                break; // parent cycle: no root to find
+            }
+            current = parentId;
+        }
+        lastUseByRoot.put(current, clock.incrementAndGet());
+    }
+
+    private static long append(ColdTreeSegment to, List<ColdTransaction> tree) {
+        try {
+            return to.append(tree);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Tree read(ColdTreeSegment from, long record) {
+        try {
+            return from.read(record);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void close(ColdTreeSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static ColdTreeSegment openSegment(Path directory) {
+        try {
+            return new ColdTreeSegment(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** A tree picked for eviction, with the last use of its root when it was picked. */
+    private record Victim(long lastUse, List<ColdTransaction> tree) {}
+
+    /** Growable parallel arrays of (id, record offset) pairs: 16 bytes per cold transaction. */
+    private static final class IdsAndRecords {
+
+        private long[] ids = new long[8];
+        private long[] records = new long[8];
+        private int size;
+
+        void add(long id, long record) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                records = Arrays.copyOf(records, size * 2);
+            }
+            ids[size] = id;
+            records[size] = record;
+            size++;
+        }
+
+        /**
+         * Keeps the pairs still current in recordById, pointed at their moved records, and
+         * returns how many are left. Shrinks the arrays once they are mostly empty.
+         */
+        int retainLive(LongLongHashMap recordById, LongLongHashMap moved) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (recordById.get(ids[i], NOT_COLD) == records[i]) {
+                    ids[kept] = ids[i];
+                    records[kept] = moved.get(records[i], NOT_COLD);
+                    kept++;
+                }
+            }
+            size = kept;
+            if (size * 4 < ids.length && ids.length > 8) {
+                ids = Arrays.copyOf(ids, Math.max(8, size * 2));
+                records = Arrays.copyOf(records, ids.length);
+            }
+            return size;
+        }
+
+        long footprint() {
+            return 16L * ids.length;
+        }
+    }
+}
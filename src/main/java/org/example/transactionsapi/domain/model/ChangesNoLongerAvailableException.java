@@ -0,0 +1,31 @@
+package org.example.transactionsapi.domain.model;
+
+/**
+ * Domain exception thrown when a consumer asks to resume from a sequence whose
+ * successors have already been dropped from the bounded change log, or from one
+ * the log does not know at all, such as a sequence of an earlier epoch.
+ * The consumer must re-synchronise from a snapshot.
+ */
+public class ChangesNoLongerAvailableException extends RuntimeException {
+
+    public ChangesNoLongerAvailableException(long requestedAfter, long oldestAvailable) {
+        super("Changes after sequence " + requestedAfter
+                + " are no longer retained; oldest available is " + oldestAvailable);
+    }
+
+    private ChangesNoLongerAvailableException(String message) {
+        super(message);
+    }
+
+    /** The requested sequence lies beyond the latest one, e.g. it was issued before a restart. */
+    public static ChangesNoLongerAvailableException unknownPosition(long requestedAfter, long latest) {
+        return new ChangesNoLongerAvailableException("Sequence " + requestedAfter
+                + " is ahead of the latest change " + latest + "; the change log has been reset");
+    }
+
+    /** The position was issued by another incarnation of the log, e.g. before a restart. */
+    public static ChangesNoLongerAvailableException otherEpoch(String requestedEpoch, String currentEpoch) {
+        return new ChangesNoLongerAvailableException("Position from change log epoch '" + requestedEpoch
+                + "' is unknown, the current epoch is '" + currentEpoch + "'; the change log has been reset");
+    }
+}
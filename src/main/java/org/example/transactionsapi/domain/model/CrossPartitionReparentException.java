@@ -0,0 +1,12 @@
+package org.example.transactionsapi.domain.model;
+
+/**
+ * Domain exception thrown when an update would move a transaction under a parent
+ * owned by another cluster node, which would split its tree across partitions.
+ */
+public class CrossPartitionReparentException extends RuntimeException {
+
+    public CrossPartitionReparentException(Long id, Long parentId) {
+        super("Transaction " + id + " cannot be moved under " + parentId + ", which belongs to another partition");
+    }
+}
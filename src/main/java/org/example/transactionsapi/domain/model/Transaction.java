@@ -4,10 +4,21 @@ package org.example.transactionsapi.domain.model;
  * Immutable domain entity representing a financial transaction.
  * A transaction can optionally reference a parent transaction,
  * forming a tree structure used for transitive sum calculations.
+ * The version starts at 1 and is incremented by every update; it backs
+ * HTTP ETags and optimistic concurrency checks.
  */
 public record Transaction(
         Long id,
         double amount,
         String type,
-        Long parentId
-) {}
+        Long parentId,
+        long version
+) {
+
+    public static final long INITIAL_VERSION = 1L;
+
+    /** Creates a transaction at its initial version. */
+    public Transaction(Long id, double amount, String type, Long parentId) {
+        this(id, amount, type, parentId, INITIAL_VERSION);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.transactionsapi.domain.model;
+
+/**
+ * Immutable record of a single mutation, as published on the change feed.
+ * The sequence is assigned by the change log and increases monotonically;
+ * before is null for a creation.
+ */
+public record TransactionChange(
+        long sequence,
+        Transaction before,
+        Transaction after
+) {}
@@ -0,0 +1,12 @@
+package org.example.transactionsapi.domain.model;
+
+/**
+ * Thrown by stores shared with other processes when a new transaction's id has already been
+ * stored by one of them. The domain catches up with the store's ids and retries with a fresh one.
+ */
+public class TransactionIdTakenException extends RuntimeException {
+
+    public TransactionIdTakenException(Long id) {
+        super("Transaction id " + id + " is already taken");
+    }
+}
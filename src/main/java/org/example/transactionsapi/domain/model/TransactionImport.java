@@ -0,0 +1,10 @@
+package org.example.transactionsapi.domain.model;
+
+/**
+ * Outcome of a bulk import: how many transactions were loaded, and how many were skipped
+ * because another cluster node owns them.
+ */
+public record TransactionImport(
+        long imported,
+        long skipped
+) {}
@@ -0,0 +1,12 @@
+package org.example.transactionsapi.domain.model;
+
+/**
+ * Domain exception thrown when a transitive sum would visit more transactions
+ * than the configured node budget allows; the traversal is abandoned.
+ */
+public class TransactionSumBudgetExceededException extends RuntimeException {
+
+    public TransactionSumBudgetExceededException(Long id, long maxNodes) {
+        super("Sum of transaction " + id + " exceeds the traversal budget of " + maxNodes + " transactions");
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.transactionsapi.domain.model;
+
+/**
+ * Domain exception thrown when every sum traversal slot is busy; the caller should retry shortly.
+ */
+public class TransactionSumCapacityExceededException extends RuntimeException {
+
+    public TransactionSumCapacityExceededException(int maxConcurrentTraversals) {
+        super("Too many sum queries in progress (" + maxConcurrentTraversals + ")");
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.transactionsapi.domain.model;
+
+/**
+ * Domain exception thrown when a conditional update expected a version
+ * other than the one currently stored (the transaction was modified concurrently).
+ */
+public class TransactionVersionConflictException extends RuntimeException {
+
+    public TransactionVersionConflictException(Long id, long expectedVersion, long actualVersion) {
+        super("Transaction " + id + " is at version " + actualVersion + ", expected " + expectedVersion);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.transactionsapi.domain.port.in;
+
+import org.example.transactionsapi.domain.model.Transaction;
+
+import java.util.function.Consumer;
+
+/**
+ * Driving port: streams every stored transaction to the sink, one at a time and in no
+ * particular order. Writes made while the export runs may or may not be included.
+ */
+public interface ExportTransactionsUseCase {
+
+    void exportTransactions(Consumer<Transaction> sink);
+}
@@ -8,4 +8,11 @@ import org.example.transactionsapi.domain.model.Transaction;
 public interface GetTransactionByIdUseCase {
 
     Transaction getTransactionById(Long id);
+
+    /**
+     * Qualifies transaction versions. Stores that do not outlive the process start ids and
+     * versions over after a restart, so a version only identifies a transaction state together
+     * with this per-boot epoch. Empty for durable stores, whose versions survive restarts.
+     */
+    String getVersionEpoch();
 }
@@ -0,0 +1,21 @@
+package org.example.transactionsapi.domain.port.in;
+
+import org.example.transactionsapi.domain.model.TransactionChange;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Driving port: reads the change feed, resuming after a previously seen sequence of a given epoch.
+ * Throws ChangesNoLongerAvailableException if that position has been evicted, or belongs to
+ * another epoch of the feed (e.g. one from before a restart).
+ */
+public interface GetTransactionChangesUseCase {
+
+    List<TransactionChange> getChangesAfter(String epoch, long sequence, int limit, Duration maxWait);
+
+    /** Epoch of the current feed; sequences are only meaningful within it. */
+    String getChangeEpoch();
+
+    long getLatestChangeSequence();
+}
@@ -7,4 +7,21 @@ package org.example.transactionsapi.domain.port.in;
 public interface GetTransactionSumUseCase {
 
     double getTransactionSum(Long transactionId);
+
+    /**
+     * Returns a stamp that changes whenever any transaction in the subtree rooted at the
+     * given id is written through this process. Cheap to compute — it never traverses the subtree.
+     * Throws TransactionNotFoundException if the transaction does not exist.
+     */
+    long getTransactionSumVersion(Long transactionId);
+
+    /** Sum versions restart with the process; they only identify a sum together with this per-boot epoch. */
+    String getSumVersionEpoch();
+
+    /**
+     * True when sum versions see every write to the store, so that, qualified by the epoch, they can
+     * identify a sum across requests (e.g. as an ETag). False when the store can be changed behind
+     * this process's back.
+     */
+    boolean isSumVersionAuthoritative();
 }
@@ -0,0 +1,16 @@
+package org.example.transactionsapi.domain.port.in;
+
+import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.model.TransactionImport;
+
+import java.util.Iterator;
+
+/**
+ * Driving port: bulk-loads transactions as they are, ids and versions included,
+ * overwriting any stored transaction with the same id. In a cluster only the transactions
+ * this node owns are loaded, so the same dump can be fed to every node; the rest are counted as skipped.
+ */
+public interface ImportTransactionsUseCase {
+
+    TransactionImport importTransactions(Iterator<Transaction> transactions);
+}
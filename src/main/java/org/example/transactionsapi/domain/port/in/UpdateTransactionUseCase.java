@@ -6,5 +6,13 @@ package org.example.transactionsapi.domain.port.in;
  */
 public interface UpdateTransactionUseCase {
 
-    void updateTransaction(Long id, double amount, String type, Long parentId);
+    default void updateTransaction(Long id, double amount, String type, Long parentId) {
+        updateTransaction(id, amount, type, parentId, null);
+    }
+
+    /**
+     * Conditional variant: when expectedVersion is non-null the update only applies if the
+     * stored version still matches, otherwise TransactionVersionConflictException is thrown.
+     */
+    void updateTransaction(Long id, double amount, String type, Long parentId, Long expectedVersion);
 }
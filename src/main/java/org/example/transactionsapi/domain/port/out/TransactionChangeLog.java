@@ -0,0 +1,59 @@
+package org.example.transactionsapi.domain.port.out;
+
+import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.model.TransactionChange;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Driven port: bounded, ordered log of transaction mutations feeding the change stream.
+ * Appending must never wait on readers — slow consumers fall behind and eventually
+ * get ChangesNoLongerAvailableException instead of holding back writers.
+ */
+public interface TransactionChangeLog {
+
+    void append(Transaction before, Transaction after);
+
+    /**
+     * Identifies this incarnation of the log. Sequences restart whenever the log does, so a
+     * sequence only designates a position together with the epoch it was read under.
+     */
+    String epoch();
+
+    /** Sequence of the most recent change, or 0 if nothing has been appended yet. */
+    long latestSequence();
+
+    /**
+     * Returns up to limit changes with a sequence greater than the given one, in order,
+     * waiting up to maxWait for the first one to arrive. Returns an empty list on
+     * timeout or interruption. Throws ChangesNoLongerAvailableException if changes
+     * following the given sequence have already been evicted, or if the sequence is
+     * beyond the latest one (it was issued before the log was reset).
+     */
+    List<TransactionChange> readAfter(long sequence, int limit, Duration maxWait);
+
+    /** A log that drops every change — for callers that do not need the feed. */
+    static TransactionChangeLog discarding() {
+        return new TransactionChangeLog() {
+            @Override
+            public void append(Transaction before, Transaction after) {
+            }
+
+            @Override
+            public String epoch() {
+                return "discarding";
+            }
+
+            @Override
+            public long latestSequence() {
+                return 0;
+            }
+
+            @Override
+            public List<TransactionChange> readAfter(long sequence, int limit, Duration maxWait) {
+                return List.of();
+            }
+        };
+    }
+}
@@ -2,8 +2,13 @@ package org.example.transactionsapi.domain.port.out;
 
 import org.example.transactionsapi.domain.model.Transaction;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.Consumer;
 
 /**
  * Driven port: storage abstraction for transactions.
@@ -11,11 +16,84 @@ import java.util.Optional;
  */
 public interface TransactionRepository {
 
+    int BULK_LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Stores a newly created transaction. Stores shared with other processes throw
+     * TransactionIdTakenException for an id that one of them has already stored, rather than
+     * overwrite the row behind it.
+     */
     void save(Transaction transaction);
 
+    /** Stores many transactions at once; stores that support batching should override this. */
+    default void saveAll(Collection<Transaction> transactions) {
+        transactions.forEach(this::save);
+    }
+
+    /**
+     * Fast path for bulk imports: stores everything the iterator yields, without the per-write
+     * bookkeeping of save. Lookups may not see the loaded transactions until the method returns.
+     */
+    default void bulkLoad(Iterator<Transaction> transactions) {
+        List<Transaction> batch = new ArrayList<>(BULK_LOAD_BATCH_SIZE);
+        while (transactions.hasNext()) {
+            batch.add(transactions.next());
+            if (batch.size() == BULK_LOAD_BATCH_SIZE) {
+                saveAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveAll(batch);
+        }
+    }
+
+    /**
+     * Atomically stores the transaction only if the currently stored one with the same id
+     * is at expectedVersion. Returns false if it is absent or has been modified meanwhile.
+     */
+    boolean replace(Transaction transaction, long expectedVersion);
+
     Optional<Transaction> findById(Long id);
 
+    /** Existence check that, unlike findById, lets tiered stores avoid loading the transaction. */
+    default boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
     List<Transaction> findByType(String type);
 
     List<Transaction> findByParentId(Long parentId);
+
+    /** Visits every stored transaction without materialising the whole store. */
+    void forEach(Consumer<Transaction> action);
+
+    /**
+     * True when the stored data lives and dies with this process, so every write to it goes
+     * through this process. Stores that are shared with other processes or survive restarts
+     * return false; the domain then cannot vouch for its in-process sum versions.
+     */
+    default boolean isProcessLocal() {
+        return true;
+    }
+
+    /**
+     * Highest stored id, or 0 when the store is empty; id allocation resumes above it on startup.
+     * The default visits everything, so durable stores should answer it with a query.
+     */
+    default long maxId() {
+        long[] max = {0};
+        forEach(transaction -> max[0] = Math.max(max[0], transaction.id()));
+        return max[0];
+    }
+
+    /**
+     * Optional push-down of the transitive sum of a transaction and all its descendants.
+     * Stores that can aggregate a subtree in a single query (e.g. a recursive CTE) return it here;
+     * the default empty result makes the domain fall back to traversing findByParentId.
+     * Also empty when the transaction does not exist.
+     */
+    default OptionalDouble sumSubtree(Long rootId) {
+        return OptionalDouble.empty();
+    }
 }
@@ -0,0 +1,106 @@
+package org.example.transactionsapi.domain.service;
+
+import org.example.transactionsapi.domain.model.TransactionSumCapacityExceededException;
+import org.example.transactionsapi.domain.port.in.GetTransactionSumUseCase;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-flight decorator for {@link GetTransactionSumUseCase}: concurrent requests for the
+ * same transaction share one traversal, and only those traversals count against the
+ * concurrency cap — joiners wait without occupying a slot.
+ *
+ * Calls are keyed by id and the subtree version stamp read on arrival. A write under the
+ * subtree bumps the stamp, so requests arriving after it start a fresh traversal instead of
+ * joining one that may have read pre-write state.
+ */
+public class CoalescingTransactionSumService implements GetTransactionSumUseCase {
+
+    private record Key(Long id, long version) {}
+
+    private final GetTransactionSumUseCase delegate;
+    private final int maxConcurrentTraversals;
+    private final AtomicInteger traversals = new AtomicInteger();
+    private final Map<Key, CompletableFuture<Double>> inFlight = new ConcurrentHashMap<>();
+    private final Runnable onJoin;
+
+    public CoalescingTransactionSumService(GetTransactionSumUseCase delegate, int maxConcurrentTraversals) {
+        this(delegate, maxConcurrentTraversals, () -> { });
+    }
+
+    /** @param onJoin runs whenever a caller joins a traversal already in flight, before it waits */
+    CoalescingTransactionSumService(GetTransactionSumUseCase delegate, int maxConcurrentTraversals, Runnable onJoin) {
+        this.delegate = delegate;
+        this.maxConcurrentTraversals = maxConcurrentTraversals;
+        this.onJoin = onJoin;
+    }
+
+    @Override
+    public double getTransactionSum(Long transactionId) {
+        Key key = new Key(transactionId, delegate.getTransactionSumVersion(transactionId));
+        CompletableFuture<Double> mine = new CompletableFuture<>();
+        CompletableFuture<Double> shared = inFlight.putIfAbsent(key, mine);
+        if (shared != null) {
+            onJoin.run();
+            return join(shared);
+        }
+        try {
+            double sum = traverse(transactionId);
+            mine.complete(sum);
+            return sum;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Override
+    public long getTransactionSumVersion(Long transactionId) {
+        return delegate.getTransactionSumVersion(transactionId);
+    }
+
+    @Override
+    public String getSumVersionEpoch() {
+        return delegate.getSumVersionEpoch();
+    }
+
+    @Override
+    public boolean isSumVersionAuthoritative() {
+        return delegate.isSumVersionAuthoritative();
+    }
+
+    private double traverse(Long transactionId) {
+        int running;
+        do {
+            running = traversals.get();
+            if (running >= maxConcurrentTraversals) {
+                throw new TransactionSumCapacityExceededException(maxConcurrentTraversals);
+            }
+        } while (!traversals.compareAndSet(running, running + 1));
+        try {
+            return delegate.getTransactionSum(transactionId);
+        } finally {
+            traversals.decrementAndGet();
+        }
+    }
+
+    private static double join(CompletableFuture<Double> shared) {
+        try {
+            return shared.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.transactionsapi.domain.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates transaction ids that stay unique across a cluster without coordination:
+ * node {@code offset} of {@code stride} nodes hands out offset+1, offset+1+stride, offset+1+2*stride, ...
+ *
+ * The allocating node is therefore recoverable from the id alone, which is what partitions
+ * the data: a transaction lives on the node that allocated its id. A single node uses stride 1.
+ */
+public final class IdSequence {
+
+    private final int stride;
+    private final int offset;
+    private final AtomicLong next;
+
+    public IdSequence(int stride, int offset) {
+        if (stride < 1 || offset < 0 || offset >= stride) {
+            throw new IllegalArgumentException("Invalid id sequence: offset " + offset + " of stride " + stride);
+        }
+        this.stride = stride;
+        this.offset = offset;
+        this.next = new AtomicLong(offset + 1L);
+    }
+
+    /** Sequence for a standalone node: 1, 2, 3, ... */
+    public static IdSequence single() {
+        return new IdSequence(1, 0);
+    }
+
+    public long next() {
+        return next.getAndAdd(stride);
+    }
+
+    /**
+     * Makes sure ids allocated from now on are greater than the given one, e.g. after importing
+     * transactions created elsewhere. The sequence stays on this node's stride.
+     */
+    public void advancePast(long id) {
+        long candidate = id + 1 + Math.floorMod(offset - id, (long) stride);
+        next.accumulateAndGet(candidate, Math::max);
+    }
+
+    /** Index of the node that allocates (and therefore owns) the given id. */
+    public int partitionOf(long id) {
+        return (int) Math.floorMod(id - 1, (long) stride);
+    }
+
+    public int partitions() {
+        return stride;
+    }
+
+    /** Index of this node. */
+    public int self() {
+        return offset;
+    }
+}
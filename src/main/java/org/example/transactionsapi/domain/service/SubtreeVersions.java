@@ -0,0 +1,46 @@
+package org.example.transactionsapi.domain.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Version stamps for subtree aggregates, used as validators for transitive sums.
+ *
+ * Every write stamps the written transaction and all of its ancestors with a fresh
+ * sequence number, so a subtree's stamp changes whenever anything below it does.
+ * Stamps live in a fixed array of slots indexed by id hash: unrelated subtrees that
+ * share a slot only cause spurious invalidations, never a stale match, and memory
+ * stays constant however many transactions are stored.
+ *
+ * Writes that bypass per-transaction stamping (bulk imports) raise a floor under every
+ * stamp instead, which invalidates all subtrees at once.
+ */
+final class SubtreeVersions {
+
+    private static final int SLOT_BITS = 16;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray stamps = new AtomicLongArray(1 << SLOT_BITS);
+    private volatile long floor;
+
+    long nextStamp() {
+        return sequence.incrementAndGet();
+    }
+
+    void stamp(Long id, long stamp) {
+        stamps.accumulateAndGet(slot(id), stamp, Math::max);
+    }
+
+    long current(Long id) {
+        return Math.max(stamps.get(slot(id)), floor);
+    }
+
+    void invalidateAll() {
+        floor = nextStamp();
+    }
+
+    private static int slot(Long id) {
+        // Fibonacci hashing: sequential ids spread evenly over the slots
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - SLOT_BITS));
+    }
+}
@@ -1,16 +1,36 @@
 package org.example.transactionsapi.domain.service;
 
+import org.example.transactionsapi.domain.model.ChangesNoLongerAvailableException;
+import org.example.transactionsapi.domain.model.CrossPartitionReparentException;
 import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.model.TransactionChange;
+import org.example.transactionsapi.domain.model.TransactionIdTakenException;
+import org.example.transactionsapi.domain.model.TransactionImport;
 import org.example.transactionsapi.domain.model.TransactionNotFoundException;
+import org.example.transactionsapi.domain.model.TransactionSumBudgetExceededException;
+import org.example.transactionsapi.domain.model.TransactionVersionConflictException;
 import org.example.transactionsapi.domain.port.in.CreateTransactionUseCase;
+import org.example.transactionsapi.domain.port.in.ExportTransactionsUseCase;
 import org.example.transactionsapi.domain.port.in.GetTransactionByIdUseCase;
+import org.example.transactionsapi.domain.port.in.GetTransactionChangesUseCase;
 import org.example.transactionsapi.domain.port.in.GetTransactionsByTypeUseCase;
 import org.example.transactionsapi.domain.port.in.GetTransactionSumUseCase;
+import org.example.transactionsapi.domain.port.in.ImportTransactionsUseCase;
 import org.example.transactionsapi.domain.port.in.UpdateTransactionUseCase;
+import org.example.transactionsapi.domain.port.out.TransactionChangeLog;
 import org.example.transactionsapi.domain.port.out.TransactionRepository;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Core domain service implementing all transaction use cases.
@@ -18,28 +38,129 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class TransactionService
         implements CreateTransactionUseCase, UpdateTransactionUseCase, GetTransactionByIdUseCase,
-                   GetTransactionsByTypeUseCase, GetTransactionSumUseCase {
+                   GetTransactionsByTypeUseCase, GetTransactionSumUseCase, GetTransactionChangesUseCase,
+                   ExportTransactionsUseCase, ImportTransactionsUseCase {
+
+    private static final int UPDATE_LOCK_STRIPES = 64;
+
+    /** Node budget meaning "no limit". */
+    public static final long UNLIMITED_SUM_NODES = Long.MAX_VALUE;
 
     private final TransactionRepository repository;
-    private final AtomicLong idSequence = new AtomicLong(1);
+    private final TransactionChangeLog changeLog;
+    private final long maxSumNodes;
+    private final IdSequence idSequence;
+    private final SubtreeVersions subtreeVersions = new SubtreeVersions();
+    /** Distinguishes this process from earlier ones, whose in-memory stamps (and ids) started from the same values. */
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, Character.MAX_RADIX);
+    private final ReentrantLock[] updateLocks = new ReentrantLock[UPDATE_LOCK_STRIPES];
 
     public TransactionService(TransactionRepository repository) {
+        this(repository, TransactionChangeLog.discarding());
+    }
+
+    public TransactionService(TransactionRepository repository, TransactionChangeLog changeLog) {
+        this(repository, changeLog, UNLIMITED_SUM_NODES);
+    }
+
+    /**
+     * @param maxSumNodes maximum number of transactions a single sum may visit before it is
+     *                    abandoned with TransactionSumBudgetExceededException
+     */
+    public TransactionService(TransactionRepository repository, TransactionChangeLog changeLog, long maxSumNodes) {
+        this(repository, changeLog, maxSumNodes, IdSequence.single());
+    }
+
+    /**
+     * @param idSequence allocator of new ids; in a cluster it also tells which node owns an id,
+     *                   and every transaction of a tree must live on the node owning its root
+     */
+    public TransactionService(TransactionRepository repository, TransactionChangeLog changeLog, long maxSumNodes,
+                              IdSequence idSequence) {
         this.repository = repository;
+        this.changeLog = changeLog;
+        this.maxSumNodes = maxSumNodes;
+        this.idSequence = idSequence;
+        for (int i = 0; i < updateLocks.length; i++) {
+            updateLocks[i] = new ReentrantLock();
+        }
     }
 
+    /**
+     * When another process sharing the store has already used the allocated id, the sequence
+     * catches up with the store's highest id and the create is retried. Every retry skips past
+     * a row that exists, so it only repeats while other processes keep inserting.
+     */
     @Override
     public Long createTransaction(double amount, String type, Long parentId) {
-        Long id = idSequence.getAndIncrement();
-        repository.save(new Transaction(id, amount, type, parentId));
-        return id;
+        Transaction created = new Transaction(idSequence.next(), amount, type, parentId);
+        while (!insertAndLog(created)) {
+            idSequence.advancePast(repository.maxId());
+            created = new Transaction(idSequence.next(), amount, type, parentId);
+        }
+        recordWrite(created.id(), parentId, null);
+        return created.id();
+    }
+
+    private boolean insertAndLog(Transaction created) {
+        ReentrantLock lock = updateLockFor(created.id());
+        lock.lock();
+        try {
+            repository.save(created);
+            changeLog.append(null, created);
+            return true;
+        } catch (TransactionIdTakenException ex) {
+            return false;
+        } finally {
+            lock.unlock();
+        }
     }
 
+    /**
+     * Optimistic update: re-reads and retries when a concurrent writer wins the race,
+     * or fails fast with TransactionVersionConflictException if the caller pinned a version.
+     * Moving a transaction under a parent owned by another cluster node is rejected.
+     */
     @Override
-    public void updateTransaction(Long id, double amount, String type, Long parentId) {
-        if (repository.findById(id).isEmpty()) {
-            throw new TransactionNotFoundException(id);
+    public void updateTransaction(Long id, double amount, String type, Long parentId, Long expectedVersion) {
+        if (parentId != null && idSequence.partitionOf(parentId) != idSequence.partitionOf(id)) {
+            throw new CrossPartitionReparentException(id, parentId);
+        }
+        while (true) {
+            Transaction current = repository.findById(id)
+                    .orElseThrow(() -> new TransactionNotFoundException(id));
+            if (expectedVersion != null && current.version() != expectedVersion) {
+                throw new TransactionVersionConflictException(id, expectedVersion, current.version());
+            }
+            Transaction updated = new Transaction(id, amount, type, parentId, current.version() + 1);
+            if (replaceAndLog(current, updated)) {
+                recordWrite(id, parentId, current.parentId());
+                return;
+            }
         }
-        repository.save(new Transaction(id, amount, type, parentId));
+    }
+
+    /**
+     * The striped lock only keeps the change log in version order for each transaction;
+     * concurrency control itself is the repository's compare-and-set.
+     */
+    private boolean replaceAndLog(Transaction current, Transaction updated) {
+        ReentrantLock lock = updateLockFor(updated.id());
+        lock.lock();
+        try {
+            if (!repository.replace(updated, current.version())) {
+                return false;
+            }
+            changeLog.append(current, updated);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Creates and updates of one transaction share a stripe, so its creation is always logged first. */
+    private ReentrantLock updateLockFor(Long id) {
+        return updateLocks[Math.floorMod(id.hashCode(), UPDATE_LOCK_STRIPES)];
     }
 
     @Override
@@ -48,6 +169,11 @@ public class TransactionService
                 .orElseThrow(() -> new TransactionNotFoundException(id));
     }
 
+    @Override
+    public String getVersionEpoch() {
+        return repository.isProcessLocal() ? epoch : "";
+    }
+
     @Override
     public List<Long> getTransactionIdsByType(String type) {
         return repository.findByType(type).stream()
@@ -62,19 +188,140 @@ public class TransactionService
      * Example: 10(5000) <- 11(10000) <- 12(5000)
      *   sum(10) = 5000 + 10000 + 5000 = 20000
      *   sum(11) = 10000 + 5000        = 15000
+     *
+     * Stores that can aggregate a subtree themselves answer in one call; otherwise the tree
+     * is walked here, throwing TransactionSumBudgetExceededException once more than
+     * maxSumNodes transactions have been visited.
      */
     @Override
     public double getTransactionSum(Long transactionId) {
+        OptionalDouble pushedDown = repository.sumSubtree(transactionId);
+        if (pushedDown.isPresent()) {
+            return pushedDown.getAsDouble();
+        }
         Transaction root = repository.findById(transactionId)
                 .orElseThrow(() -> new TransactionNotFoundException(transactionId));
-        return sumRecursive(root);
+        return sumRecursive(root, new long[]{maxSumNodes}, transactionId);
+    }
+
+    @Override
+    public long getTransactionSumVersion(Long transactionId) {
+        if (!repository.existsById(transactionId)) {
+            throw new TransactionNotFoundException(transactionId);
+        }
+        return subtreeVersions.current(transactionId);
+    }
+
+    @Override
+    public String getSumVersionEpoch() {
+        return epoch;
+    }
+
+    /** Stamps are kept in memory, so they only cover stores that nobody else writes to. */
+    @Override
+    public boolean isSumVersionAuthoritative() {
+        return repository.isProcessLocal();
     }
 
-    private double sumRecursive(Transaction transaction) {
+    @Override
+    public List<TransactionChange> getChangesAfter(String epoch, long sequence, int limit, Duration maxWait) {
+        if (!changeLog.epoch().equals(epoch)) {
+            throw ChangesNoLongerAvailableException.otherEpoch(epoch, changeLog.epoch());
+        }
+        return changeLog.readAfter(sequence, limit, maxWait);
+    }
+
+    @Override
+    public String getChangeEpoch() {
+        return changeLog.epoch();
+    }
+
+    @Override
+    public long getLatestChangeSequence() {
+        return changeLog.latestSequence();
+    }
+
+    @Override
+    public void exportTransactions(Consumer<Transaction> sink) {
+        repository.forEach(sink);
+    }
+
+    /**
+     * Loads through the repository's bulk path, skipping the per-transaction change log entries
+     * and version stamps; afterwards every sum version is invalidated. Change feed consumers
+     * are not told about imported data.
+     *
+     * The id sequence is advanced past each row before it is handed to the store, so a create
+     * running during the import can never be given an id that the import is about to write.
+     * Rows owned by another cluster node are skipped; since a tree lives on the node owning its
+     * root, this keeps whole trees together.
+     */
+    @Override
+    public TransactionImport importTransactions(Iterator<Transaction> transactions) {
+        long[] importedAndSkipped = {0, 0};
+        repository.bulkLoad(new Iterator<>() {
+            private Transaction owned;
+
+            @Override
+            public boolean hasNext() {
+                while (owned == null && transactions.hasNext()) {
+                    Transaction candidate = transactions.next();
+                    if (idSequence.partitionOf(candidate.id()) == idSequence.self()) {
+                        owned = candidate;
+                    } else {
+                        importedAndSkipped[1]++;
+                    }
+                }
+                return owned != null;
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Transaction next = owned;
+                owned = null;
+                idSequence.advancePast(next.id());
+                importedAndSkipped[0]++;
+                return next;
+            }
+        });
+        subtreeVersions.invalidateAll();
+        return new TransactionImport(importedAndSkipped[0], importedAndSkipped[1]);
+    }
+
+    private double sumRecursive(Transaction transaction, long[] remainingNodes, Long rootId) {
+        if (--remainingNodes[0] < 0) {
+            throw new TransactionSumBudgetExceededException(rootId, maxSumNodes);
+        }
         double sum = transaction.amount();
         for (Transaction child : repository.findByParentId(transaction.id())) {
-            sum += sumRecursive(child);
+            sum += sumRecursive(child, remainingNodes, rootId);
         }
         return sum;
     }
+
+    /**
+     * Stamps the written transaction and every ancestor — along the new parent chain and,
+     * after a re-parent, the old one too. Must run after the write is stored so that a
+     * reader never pairs a fresh stamp with stale data.
+     */
+    private void recordWrite(Long id, Long parentId, Long previousParentId) {
+        long stamp = subtreeVersions.nextStamp();
+        subtreeVersions.stamp(id, stamp);
+        stampAncestors(parentId, stamp);
+        if (previousParentId != null && !Objects.equals(previousParentId, parentId)) {
+            stampAncestors(previousParentId, stamp);
+        }
+    }
+
+    private void stampAncestors(Long parentId, long stamp) {
+        Set<Long> visited = new HashSet<>();
+        Long current = parentId;
+        while (current != null && visited.add(current)) {
+            subtreeVersions.stamp(current, stamp);
+            current = repository.findById(current).map(Transaction::parentId).orElse(null);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS transactions (
+    id        BIGINT           NOT NULL PRIMARY KEY,
+    amount    DOUBLE PRECISION NOT NULL,
+    type      VARCHAR,
+    parent_id BIGINT,
+    version   BIGINT           NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_type ON transactions (type);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_parent_id ON transactions (parent_id);
@@ -0,0 +1,231 @@
+package org.example.transactionsapi.adapter.in.web;
+
+import org.example.transactionsapi.adapter.in.web.dto.CreateTransactionRequest;
+import org.example.transactionsapi.adapter.in.web.dto.CreateTransactionResponse;
+import org.example.transactionsapi.adapter.in.web.dto.SumResponse;
+import org.example.transactionsapi.adapter.in.web.dto.TransactionResponse;
+import org.example.transactionsapi.adapter.in.web.json.TransactionJsonHttpMessageConverter;
+import org.example.transactionsapi.adapter.out.persistence.InMemoryTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the hot endpoints with transactions.web.fast-json=true: the hand-rolled converter
+ * must be picked ahead of Jackson, and the bodies must be byte-identical to Jackson's.
+ */
+@SpringBootTest(properties = "transactions.web.fast-json=true")
+@AutoConfigureMockMvc
+class FastJsonTransactionControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemoryTransactionRepository repository;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @BeforeEach
+    void clearStorage() {
+        repository.clear();
+    }
+
+    @Test
+    void shouldRegisterConverterAheadOfJackson() {
+        assertThat(firstWriterOf(TransactionResponse.class)).isInstanceOf(TransactionJsonHttpMessageConverter.class);
+        assertThat(firstWriterOf(SumResponse.class)).isInstanceOf(TransactionJsonHttpMessageConverter.class);
+        assertThat(firstReaderOf(CreateTransactionRequest.class)).isInstanceOf(TransactionJsonHttpMessageConverter.class);
+        // everything else is still Jackson's
+        assertThat(firstWriterOf(CreateTransactionResponse.class)).isNotInstanceOf(TransactionJsonHttpMessageConverter.class);
+    }
+
+    @Test
+    void postTransaction_shouldParseBodyAndAnswerLikeJackson() throws Exception {
+        long parentId = postTransaction("""
+                {"amount": 5000.0, "type": "cars"}
+                """);
+        MvcResult created = mockMvc.perform(post("/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": 10000.0, "type": "shopping", "parent_id": %d}
+                                """.formatted(parentId)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long childId = Long.parseLong(created.getResponse().getContentAsString().replaceAll("[^0-9]", ""));
+
+        assertThat(created.getResponse().getContentAsByteArray())
+                .isEqualTo(jsonMapper.writeValueAsBytes(new CreateTransactionResponse(childId)));
+        assertThat(repository.findById(childId)).hasValueSatisfying(t -> {
+            assertThat(t.amount()).isEqualTo(10000.0);
+            assertThat(t.type()).isEqualTo("shopping");
+            assertThat(t.parentId()).isEqualTo(parentId);
+        });
+    }
+
+    @Test
+    void getById_shouldBeByteIdenticalToJackson() throws Exception {
+        long root = postTransaction("""
+                {"amount": 1500.0, "type": "rent \\"main\\" é"}
+                """);
+        long child = postTransaction("""
+                {"amount": 0.1, "type": "food", "parent_id": %d}
+                """.formatted(root));
+
+        assertSameBytes(get("/transactions/" + root), new TransactionResponse(root, 1500.0, "rent \"main\" é", null));
+        assertSameBytes(get("/transactions/" + child), new TransactionResponse(child, 0.1, "food", root));
+    }
+
+    @Test
+    void getSum_shouldBeByteIdenticalToJackson() throws Exception {
+        long root = postTransaction("""
+                {"amount": 5000.0, "type": "cars"}
+                """);
+        postTransaction("""
+                {"amount": 1e7, "type": "cars", "parent_id": %d}
+                """.formatted(root));
+
+        assertSameBytes(get("/transactions/sum/" + root), new SumResponse(10005000.0));
+    }
+
+    @Test
+    void postTransaction_shouldBindEveryBodyLikeJackson() throws Exception {
+        String[] bodies = {
+                "{\"amount\": 200.25, \"type\": \"shopping\", \"parent_id\": 999}",
+                "{\"amount\": 1, \"type\": null, \"parent_id\": null}",
+                "{\"amount\": 1}",
+                "{\"amount\": 01}",
+                "{\"amount\": 1, \"parent_id\": -01}",
+                "{\"amount\": -0}",
+                "{\"amount\": \"5\"}",
+                "{\"amount\": 5, \"parent_id\": \"7\"}",
+                "{\"amount\": 5, \"parent_id\": 7.0}",
+                "{\"amount\": 5, \"parent_id\": 1.5}",
+                "{\"amount\": 5, \"type\": 5}",
+                "{\"amount\": 1e400}",
+                "{}",
+                "{\"amount\": null}",
+                "{\"type\": \"cars\"}",
+                "{\"amount\": 5, \"amount\": 6}",
+                "{\"amount\": 5, \"extra\": [1,,2]}",
+                "{\"amount\": 5, \"extra\": {\"nested\": [1, true]}}",
+                "{\"amount\": 5, \"type\": \"\\ud800\"}",
+                "{\"amount\": 5, \"type\": \"\\ud83d\\ude00 \\u00e9\"}",
+                "{\"amount\": 5, \"type\": \"\\q\"}",
+                "{\"amount\": 5} trailing",
+                "null",
+                ""};
+        for (String body : bodies) {
+            assertSameBinding(body.getBytes(StandardCharsets.UTF_8));
+        }
+        // a surrogate encoded in UTF-8, and a byte that is never valid UTF-8
+        assertSameBinding(new byte[]{'{', '"', 'a', 'm', 'o', 'u', 'n', 't', '"', ':', '1', ',',
+                '"', 't', 'y', 'p', 'e', '"', ':', '"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"', '}'});
+        assertSameBinding(new byte[]{'{', '"', 'a', 'm', 'o', 'u', 'n', 't', '"', ':', '1', ',',
+                '"', 't', 'y', 'p', 'e', '"', ':', '"', (byte) 0xFF, '"', '}'});
+    }
+
+    @Test
+    void postTransaction_shouldAcceptBodiesOnlyJacksonBinds() throws Exception {
+        long id = postTransaction("""
+                {"amount": "5000.0", "type": "cars"}
+                """);
+
+        assertThat(repository.findById(id)).hasValueSatisfying(t -> assertThat(t.amount()).isEqualTo(5000.0));
+    }
+
+    @Test
+    void errorsShouldStillBeRenderedByJackson() throws Exception {
+        mockMvc.perform(get("/transactions/998"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("""
+                        {"error": "Transaction not found with id: 998"}
+                        """));
+    }
+
+    private void assertSameBytes(RequestBuilder request, Object expected) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+        assertThat(result.getResponse().getContentAsByteArray()).isEqualTo(jsonMapper.writeValueAsBytes(expected));
+    }
+
+    /** Reads the body through the fast converter and through Jackson: the same request, or both fail. */
+    private void assertSameBinding(byte[] body) throws IOException {
+        String description = new String(body, StandardCharsets.UTF_8);
+        Object expected;
+        try {
+            expected = read(jacksonReaderOf(CreateTransactionRequest.class), body);
+        } catch (HttpMessageNotReadableException ex) {
+            assertThatThrownBy(() -> read(firstReaderOf(CreateTransactionRequest.class), body))
+                    .as(description)
+                    .isInstanceOf(HttpMessageNotReadableException.class);
+            return;
+        }
+        assertThat(read(firstReaderOf(CreateTransactionRequest.class), body)).as(description).isEqualTo(expected);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object read(HttpMessageConverter<?> converter, byte[] body) throws IOException {
+        MockHttpInputMessage input = new MockHttpInputMessage(body);
+        input.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return ((HttpMessageConverter<Object>) converter).read((Class<Object>) (Class<?>) CreateTransactionRequest.class, input);
+    }
+
+    private HttpMessageConverter<?> jacksonReaderOf(Class<?> type) {
+        return handlerAdapter.getMessageConverters().stream()
+                .filter(converter -> !(converter instanceof TransactionJsonHttpMessageConverter))
+                .filter(converter -> converter.canRead(type, MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private HttpMessageConverter<?> firstWriterOf(Class<?> type) {
+        return handlerAdapter.getMessageConverters().stream()
+                .filter(converter -> converter.canWrite(type, MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private HttpMessageConverter<?> firstReaderOf(Class<?> type) {
+        return handlerAdapter.getMessageConverters().stream()
+                .filter(converter -> converter.canRead(type, MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private long postTransaction(String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString().replaceAll("[^0-9]", ""));
+    }
+}
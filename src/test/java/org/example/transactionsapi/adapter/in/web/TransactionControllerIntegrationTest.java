@@ -1,5 +1,6 @@
 package org.example.transactionsapi.adapter.in.web;
 
+import org.example.transactionsapi.adapter.out.changefeed.InMemoryTransactionChangeLog;
 import org.example.transactionsapi.adapter.out.persistence.InMemoryTransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,10 +12,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -31,6 +35,9 @@ class TransactionControllerIntegrationTest {
     @Autowired
     private InMemoryTransactionRepository repository;
 
+    @Autowired
+    private InMemoryTransactionChangeLog changeLog;
+
     @BeforeEach
     void clearStorage() {
         repository.clear();
@@ -230,6 +237,161 @@ class TransactionControllerIntegrationTest {
                 .andExpect(jsonPath("$.error").exists());
     }
 
+    // --- conditional requests ---
+
+    @Test
+    void getById_shouldReturn304WhenETagMatches() throws Exception {
+        long id = postTransaction(1500.0, "rent", null);
+
+        String etag = mockMvc.perform(get("/transactions/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/transactions/" + id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getSum_shouldReturn304UntilSubtreeChanges() throws Exception {
+        long root = postTransaction(5000.0, "cars", null);
+        long child = postTransaction(1000.0, "cars", root);
+
+        String etag = mockMvc.perform(get("/transactions/sum/" + root))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/transactions/sum/" + root).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        postTransaction(250.0, "cars", child);
+
+        mockMvc.perform(get("/transactions/sum/" + root).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sum").value(6250.0));
+    }
+
+    @Test
+    void conditionalRequests_shouldNotMatchTagsFromAnotherEpoch() throws Exception {
+        long id = postTransaction(100.0, "payment", null);
+        String etag = mockMvc.perform(get("/transactions/" + id)).andReturn().getResponse().getHeader("ETag");
+        // the bare version, as a client may have cached it for the same id before a restart
+        String previousBoot = "\"1\"";
+
+        assertThat(etag).isNotEqualTo(previousBoot).endsWith("-1\"");
+        mockMvc.perform(get("/transactions/" + id).header("If-None-Match", previousBoot))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/transactions/sum/" + id).header("If-None-Match", previousBoot))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/transactions/" + id)
+                        .header("If-Match", previousBoot)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": 250.0, "type": "updated"}
+                                """))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void putTransaction_shouldApplyWhenIfMatchIsCurrent() throws Exception {
+        long id = postTransaction(100.0, "payment", null);
+        String etag = mockMvc.perform(get("/transactions/" + id)).andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(put("/transactions/" + id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": 250.0, "type": "updated"}
+                                """))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void putTransaction_shouldReturn412WhenIfMatchIsStale() throws Exception {
+        long id = postTransaction(100.0, "payment", null);
+        String etag = mockMvc.perform(get("/transactions/" + id)).andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(put("/transactions/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"amount": 200.0, "type": "payment"}
+                        """));
+
+        mockMvc.perform(put("/transactions/" + id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": 300.0, "type": "payment"}
+                                """))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").exists());
+
+        mockMvc.perform(get("/transactions/" + id))
+                .andExpect(jsonPath("$.amount").value(200.0));
+    }
+
+    // --- GET /transactions/changes ---
+
+    @Test
+    void getChanges_shouldReturnMutationsAfterSequence() throws Exception {
+        long since = changeLog.latestSequence();
+        long id = postTransaction(100.0, "payment", null);
+        mockMvc.perform(put("/transactions/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"amount": 250.0, "type": "payment"}
+                        """));
+
+        MvcResult pending = mockMvc.perform(get("/transactions/changes")
+                        .param("after", changeLog.epoch() + "-" + since)
+                        .param("waitMs", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].sequence").value(since + 1))
+                .andExpect(jsonPath("$[0].position").value(changeLog.epoch() + "-" + (since + 1)))
+                .andExpect(jsonPath("$[0].before").doesNotExist())
+                .andExpect(jsonPath("$[0].after.amount").value(100.0))
+                .andExpect(jsonPath("$[1].before.amount").value(100.0))
+                .andExpect(jsonPath("$[1].after.amount").value(250.0));
+    }
+
+    @Test
+    void getChanges_shouldAnswerEmptyWhenNothingIsPublishedWithinTheWait() throws Exception {
+        long since = changeLog.latestSequence();
+
+        MvcResult pending = mockMvc.perform(get("/transactions/changes")
+                        .param("after", changeLog.epoch() + "-" + since)
+                        .param("waitMs", "200"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void getChanges_shouldReturn410ForPositionFromAnotherEpoch() throws Exception {
+        postTransaction(100.0, "payment", null);
+
+        // a position handed out before a restart, and a bare sequence from before positions had epochs
+        for (String stale : new String[]{"previousboot-1", "1"}) {
+            MvcResult pending = mockMvc.perform(get("/transactions/changes")
+                            .param("after", stale)
+                            .param("waitMs", "0"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(pending))
+                    .andExpect(status().isGone())
+                    .andExpect(jsonPath("$.error").exists());
+        }
+    }
+
     // --- helper ---
 
     private long postTransaction(double amount, String type, Long parentId) throws Exception {
@@ -0,0 +1,86 @@
+package org.example.transactionsapi.adapter.in.web.admin;
+
+import org.example.transactionsapi.adapter.out.persistence.InMemoryTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "transactions.admin.enabled=true")
+@AutoConfigureMockMvc
+class TransactionAdminIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemoryTransactionRepository repository;
+
+    @BeforeEach
+    void clearStorage() {
+        repository.clear();
+    }
+
+    @Test
+    void shouldRestoreExportedStoreIntoEmptyRepository() throws Exception {
+        long root = create("{\"amount\": 5000, \"type\": \"cars\"}");
+        long child = create("{\"amount\": 10000, \"type\": \"shopping\", \"parent_id\": " + root + "}");
+        create("{\"amount\": 5000, \"type\": \"shopping\", \"parent_id\": " + child + "}");
+
+        byte[] dump = export();
+        repository.clear();
+
+        mockMvc.perform(post("/admin/transactions/import")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(dump))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.skipped").value(0));
+
+        mockMvc.perform(get("/transactions/sum/" + root))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sum").value(20000.0));
+        mockMvc.perform(get("/transactions/types/shopping"))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void shouldRejectMalformedDumpWith400() throws Exception {
+        mockMvc.perform(post("/admin/transactions/import")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("not a dump".getBytes()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    private byte[] export() throws Exception {
+        MvcResult pending = mockMvc.perform(get("/admin/transactions/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+    }
+
+    private long create(String json) throws Exception {
+        MvcResult result = mockMvc.perform(post("/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString().replaceAll("[^0-9]", ""));
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.transactionsapi.adapter.in.web.admin;
+
+import org.example.transactionsapi.domain.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionDumpTest {
+
+    private static final List<Transaction> TRANSACTIONS = List.of(
+            new Transaction(10L, 5000.0, "cars", null),
+            new Transaction(11L, 10000.0, "shopping", 10L, 3),
+            new Transaction(12L, -0.5, null, 11L),
+            new Transaction(13L, 1e-9, "unicode é ✓", null, 7));
+
+    @Test
+    void shouldRoundTripTransactions() throws IOException {
+        assertThat(readAll(dump(TRANSACTIONS))).containsExactlyElementsOf(TRANSACTIONS);
+    }
+
+    @Test
+    void shouldRoundTripTypesLongerThanModifiedUtf8Allows() throws IOException {
+        List<Transaction> longType = List.of(
+                new Transaction(1L, 1.0, "é".repeat(40_000), null),
+                new Transaction(2L, 2.0, "cars", 1L));
+
+        assertThat(readAll(dump(longType))).containsExactlyElementsOf(longType);
+    }
+
+    @Test
+    void shouldRoundTripEmptyDump() throws IOException {
+        assertThat(readAll(dump(List.of()))).isEmpty();
+    }
+
+    @Test
+    void shouldRejectWrongHeader() {
+        byte[] notADump = "{\"amount\": 1}".getBytes();
+
+        assertThatThrownBy(() -> new TransactionDumpReader(new ByteArrayInputStream(notADump)))
+                .isInstanceOf(InvalidTransactionDumpException.class);
+        assertThatThrownBy(() -> new TransactionDumpReader(new ByteArrayInputStream(new byte[2])))
+                .isInstanceOf(InvalidTransactionDumpException.class);
+    }
+
+    @Test
+    void shouldRejectTruncatedDumpAfterYieldingCompleteRecords() throws IOException {
+        byte[] dump = dump(TRANSACTIONS);
+        byte[] truncated = Arrays.copyOf(dump, dump.length - 12);
+
+        TransactionDumpReader reader = new TransactionDumpReader(new ByteArrayInputStream(truncated));
+        List<Transaction> read = new ArrayList<>();
+
+        assertThatThrownBy(() -> reader.forEachRemaining(read::add))
+                .isInstanceOf(InvalidTransactionDumpException.class)
+                .hasMessageContaining("truncated");
+        assertThat(read).hasSize(3);
+    }
+
+    @Test
+    void shouldRejectTrailerCountMismatch() throws IOException {
+        byte[] dump = dump(TRANSACTIONS);
+        dump[dump.length - 1]++;
+
+        assertThatThrownBy(() -> readAll(dump))
+                .isInstanceOf(InvalidTransactionDumpException.class)
+                .hasMessageContaining("declares");
+    }
+
+    private static byte[] dump(List<Transaction> transactions) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionDumpWriter writer = new TransactionDumpWriter(out);
+        transactions.forEach(writer::write);
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private static List<Transaction> readAll(byte[] dump) {
+        List<Transaction> read = new ArrayList<>();
+        new TransactionDumpReader(new ByteArrayInputStream(dump)).forEachRemaining(read::add);
+        return read;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.transactionsapi.adapter.in.web.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Admission through the full MVC stack, with a bucket of two tokens that practically never refills.
+ */
+@SpringBootTest(properties = {
+        "transactions.admission.requests-per-second=0.001",
+        "transactions.admission.burst=2",
+        "transactions.admission.sum-cost=1"})
+@AutoConfigureMockMvc
+class AdmissionControlIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldChargeACompletedLongPollOneToken() throws Exception {
+        MvcResult pending = mockMvc.perform(get("/transactions/changes").param("waitMs", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/transactions/types/cars"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/transactions/types/cars"))
+                .andExpect(status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.transactionsapi.adapter.in.web.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControlTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    @Test
+    void shouldAdmitUpToBurstThenReject() {
+        AdmissionControl admission = new AdmissionControl(10, 5, 2, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            admission.admit("client");
+        }
+
+        assertThatThrownBy(() -> admission.admit("client"))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .extracting(ex -> ((AdmissionRejectedException) ex).getRetryAfterSeconds())
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        AdmissionControl admission = new AdmissionControl(10, 1, 1, clock::get);
+        admission.admit("client");
+        assertThatThrownBy(() -> admission.admit("client")).isInstanceOf(AdmissionRejectedException.class);
+
+        clock.addAndGet(100_000_000L); // one token at 10/s
+
+        admission.admit("client");
+    }
+
+    @Test
+    void shouldTrackClientsIndependently() {
+        AdmissionControl admission = new AdmissionControl(1, 1, 1, clock::get);
+        admission.admit("a");
+
+        admission.admit("b");
+        assertThatThrownBy(() -> admission.admit("a")).isInstanceOf(AdmissionRejectedException.class);
+    }
+
+    @Test
+    void shouldChargeSumCost() {
+        AdmissionControl admission = new AdmissionControl(1, 10, 8, clock::get);
+        admission.admitSum("client");
+
+        admission.admit("client");
+        admission.admit("client");
+        assertThatThrownBy(() -> admission.admitSum("client"))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .extracting(ex -> ((AdmissionRejectedException) ex).getRetryAfterSeconds())
+                .isEqualTo(8L);
+    }
+
+    @Test
+    void shouldPruneIdleClientsOnceManyAreTracked() {
+        AdmissionControl admission = new AdmissionControl(1, 1, 1, clock::get);
+        for (int i = 0; i <= 10_000; i++) {
+            admission.admit("client-" + i);
+        }
+        clock.addAndGet(1_000_000_000L); // every bucket refilled: all idle
+
+        admission.admit("newcomer");
+
+        assertThat(admission.trackedClients()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectSumCostLargerThanBurst() {
+        assertThatThrownBy(() -> new AdmissionControl(10, 5, 6))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.transactionsapi.adapter.in.web.cluster;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.transactionsapi.adapter.in.web.admission.AdmissionControl;
+import org.example.transactionsapi.adapter.in.web.admission.AdmissionControlInterceptor;
+import org.example.transactionsapi.domain.service.IdSequence;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class PartitionRoutingFilterTest {
+
+    private static final String SECRET = "test-cluster-secret";
+
+    private final HttpClient client = mock(HttpClient.class);
+    private final AdmissionControl admission = new AdmissionControl(1, 1, 1);
+
+    @Test
+    void shouldRejectTypeQueryOverTheRateBeforeAskingAnyPeer() throws Exception {
+        PartitionRoutingFilter filter = filter(List.of("http://node-0", "http://node-1"));
+        admission.admit("127.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(typeQuery(), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(chain.getRequest()).isNull();
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void shouldMarkAdmittedTypeQueryForTheInterceptor() throws Exception {
+        PartitionRoutingFilter filter = filter(List.of("http://node-0"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.getOutputStream().write("[1]".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        filter.doFilter(typeQuery(), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("[1]");
+        assertThat(chain.getRequest().getAttribute(AdmissionControlInterceptor.ADMITTED_ATTRIBUTE)).isEqualTo(true);
+    }
+
+    private PartitionRoutingFilter filter(List<String> nodes) {
+        return new PartitionRoutingFilter(new IdSequence(nodes.size(), 0), nodes, SECRET, client,
+                Duration.ofSeconds(1), JsonMapper.builder().build(), admission);
+    }
+
+    private static MockHttpServletRequest typeQuery() {
+        return new MockHttpServletRequest("GET", "/transactions/types/cars");
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.transactionsapi.adapter.in.web.cluster;
+
+import org.example.transactionsapi.TransactionsApiApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two real nodes on local ports and drives them over HTTP:
+ * node 0 owns the odd ids, node 1 the even ones.
+ */
+class PartitionRoutingIntegrationTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final String SECRET = "test-cluster-secret";
+
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final List<String> urls = new ArrayList<>();
+    private static HttpClient http;
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        int[] ports = {freePort(), freePort()};
+        for (int port : ports) {
+            urls.add("http://localhost:" + port);
+        }
+        for (int node = 0; node < ports.length; node++) {
+            contexts.add(new SpringApplicationBuilder(TransactionsApiApplication.class).run(
+                    "--server.port=" + ports[node],
+                    "--transactions.cluster.nodes=" + String.join(",", urls),
+                    "--transactions.cluster.self-index=" + node,
+                    "--transactions.cluster.secret=" + SECRET,
+                    "--transactions.admission.enabled=false"));
+        }
+        http = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        http.close();
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void shouldAllocateIdsOnTheReceivingNodeForRoots() throws Exception {
+        assertThat(create(0, "{\"amount\": 1, \"type\": \"root\"}") % 2).isEqualTo(1);
+        assertThat(create(1, "{\"amount\": 1, \"type\": \"root\"}") % 2).isEqualTo(0);
+    }
+
+    @Test
+    void shouldKeepWholeTreeOnRootOwnerAndSumThroughAnyNode() throws Exception {
+        long root = create(0, "{\"amount\": 5000, \"type\": \"cars\"}");
+        long child = create(1, "{\"amount\": 10000, \"type\": \"shopping\", \"parent_id\": " + root + "}");
+        long grandchild = create(1, "{\"amount\": 5000, \"type\": \"shopping\", \"parent_id\": " + child + "}");
+
+        assertThat(child % 2).isEqualTo(root % 2);
+        assertThat(grandchild % 2).isEqualTo(root % 2);
+        assertThat(send(get(1, "/transactions/sum/" + root)).body()).isEqualTo("{\"sum\":20000.0}");
+        assertThat(send(get(0, "/transactions/sum/" + child)).body()).isEqualTo("{\"sum\":15000.0}");
+    }
+
+    @Test
+    void shouldForwardReadsAndRelayConditionalResponses() throws Exception {
+        long id = create(1, "{\"amount\": 7, \"type\": \"relay\"}");
+
+        HttpResponse<String> first = send(get(0, "/transactions/" + id));
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.body()).contains("\"amount\":7.0");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> second = send(get(0, "/transactions/" + id).header("If-None-Match", etag));
+        assertThat(second.statusCode()).isEqualTo(304);
+
+        assertThat(send(get(0, "/transactions/" + (id + 2))).statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    void shouldGatherTypeQueriesFromAllNodes() throws Exception {
+        long onFirst = create(0, "{\"amount\": 1, \"type\": \"gathered\"}");
+        long onSecond = create(1, "{\"amount\": 1, \"type\": \"gathered\"}");
+
+        for (int node = 0; node < 2; node++) {
+            HttpResponse<String> response = send(get(node, "/transactions/types/gathered"));
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(ids(response.body())).containsExactlyInAnyOrder(onFirst, onSecond);
+        }
+        assertThat(send(get(0, "/transactions/types/nothing")).body()).isEqualTo("[]");
+    }
+
+    @Test
+    void shouldRejectReparentingAcrossPartitionsWith409() throws Exception {
+        long onFirst = create(0, "{\"amount\": 1, \"type\": \"a\"}");
+        long onSecond = create(1, "{\"amount\": 1, \"type\": \"b\"}");
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri(0, "/transactions/" + onSecond))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(
+                        "{\"amount\": 1, \"type\": \"b\", \"parent_id\": " + onFirst + "}")));
+
+        assertThat(response.statusCode()).isEqualTo(409);
+    }
+
+    @Test
+    void shouldRouteRequestsClaimingToBeForwardedWithoutTheSecret() throws Exception {
+        long root = create(0, "{\"amount\": 1, \"type\": \"forged\"}");
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri(1, "/transactions"))
+                .header("Content-Type", "application/json")
+                .header(PartitionRoutingFilter.FORWARDED_HEADER, "0")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"amount\": 1, \"type\": \"forged\", \"parent_id\": " + root + "}")));
+
+        assertThat(response.statusCode()).isEqualTo(201);
+        assertThat(idOf(response.body()) % 2).isEqualTo(root % 2);
+    }
+
+    @Test
+    void shouldRouteCreateByParentIdTheCodecCannotRead() throws Exception {
+        long root = create(0, "{\"amount\": 1, \"type\": \"quoted\"}");
+
+        // Jackson coerces the quoted number, the fast codec does not
+        long child = create(1, "{\"amount\": 1, \"type\": \"quoted\", \"parent_id\": \"" + root + "\"}");
+
+        assertThat(child % 2).isEqualTo(root % 2);
+        assertThat(send(get(1, "/transactions/sum/" + root)).body()).isEqualTo("{\"sum\":2.0}");
+    }
+
+    @Test
+    void shouldRejectCreateWhoseParentCannotBeDetermined() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri(1, "/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"amount\": 1, \"parent_id\": [")));
+
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(response.body()).contains("\"error\"");
+    }
+
+    // --- helpers ---
+
+    private long create(int node, String json) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri(node, "/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+        assertThat(response.statusCode()).isEqualTo(201);
+        return idOf(response.body());
+    }
+
+    private static long idOf(String body) {
+        Matcher matcher = ID.matcher(body);
+        assertThat(matcher.find()).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static HttpRequest.Builder get(int node, String path) {
+        return HttpRequest.newBuilder(uri(node, path)).GET();
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(int node, String path) {
+        return URI.create(urls.get(node) + path);
+    }
+
+    private static List<Long> ids(String jsonArray) {
+        String elements = jsonArray.substring(1, jsonArray.length() - 1).strip();
+        return elements.isEmpty()
+                ? List.of()
+                : Arrays.stream(elements.split(",")).map(String::strip).map(Long::valueOf).toList();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.transactionsapi.adapter.in.web.json;
+
+import org.example.transactionsapi.adapter.in.web.dto.CreateTransactionRequest;
+import org.example.transactionsapi.adapter.in.web.dto.SumResponse;
+import org.example.transactionsapi.adapter.in.web.dto.TransactionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionJsonCodecTest {
+
+    private TransactionJsonCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new TransactionJsonCodec();
+    }
+
+    // --- encoding ---
+
+    @Test
+    void shouldWriteTransactionOmittingNullParentId() {
+        codec.writeTransaction(new TransactionResponse(10L, 5000.0, "cars", null));
+
+        assertThat(written()).isEqualTo("{\"id\":10,\"amount\":5000.0,\"type\":\"cars\"}");
+    }
+
+    @Test
+    void shouldWriteTransactionWithParentId() {
+        codec.writeTransaction(new TransactionResponse(11L, 10000.0, "shopping", 10L));
+
+        assertThat(written()).isEqualTo("{\"id\":11,\"amount\":10000.0,\"type\":\"shopping\",\"parent_id\":10}");
+    }
+
+    @Test
+    void shouldEscapeTypeString() {
+        codec.writeTransaction(new TransactionResponse(1L, 1.0, "a\"b\\c\n\u0001é", null));
+
+        assertThat(written()).isEqualTo("{\"id\":1,\"amount\":1.0,\"type\":\"a\\\"b\\\\c\\n\\u0001é\"}");
+    }
+
+    @Test
+    void shouldFormatDoublesLikeDoubleToString() {
+        for (double value : new double[]{0.0, -0.0, 1.0, -42.5, 0.1, 20000.5, 9999999.0, 1e7, 1e-6, 123456789.25}) {
+            codec.reset();
+            codec.writeSum(new SumResponse(value));
+            assertThat(written()).isEqualTo("{\"sum\":" + Double.toString(value) + "}");
+        }
+    }
+
+    @Test
+    void shouldReuseBufferAcrossResets() {
+        codec.writeSum(new SumResponse(1.0));
+        byte[] first = codec.array();
+        codec.reset();
+        codec.writeSum(new SumResponse(2.0));
+
+        assertThat(codec.array()).isSameAs(first);
+        assertThat(written()).isEqualTo("{\"sum\":2.0}");
+    }
+
+    // --- decoding ---
+
+    @Test
+    void shouldReadCreateRequest() throws IOException {
+        CreateTransactionRequest request = read("""
+                {"amount": 200.25, "type": "shopping", "parent_id": 999}
+                """);
+
+        assertThat(request).isEqualTo(new CreateTransactionRequest(200.25, "shopping", 999L));
+    }
+
+    @Test
+    void shouldTreatMissingAndNullOptionalFieldsAsNull() throws IOException {
+        assertThat(read("{\"amount\": 1, \"type\": null, \"parent_id\": null}"))
+                .isEqualTo(new CreateTransactionRequest(1.0, null, null));
+        assertThat(read("{\"amount\": 1}")).isEqualTo(new CreateTransactionRequest(1.0, null, null));
+    }
+
+    @Test
+    void shouldDeclineBodiesJacksonMightBindDifferently() {
+        String[] declined = {
+                "{\"type\": \"cars\"}",
+                "{\"amount\": null}",
+                "{\"amount\": 5, \"extra\": {\"nested\": [1, true]}}",
+                "{\"amount\": 5, \"amount\": 6}",
+                "{\"amount\": \"5\"}",
+                "{\"amount\": 5, \"parent_id\": \"7\"}",
+                "{\"amount\": 5, \"parent_id\": 7.0}",
+                "{\"amount\": 5, \"type\": 5}",
+                "{\"amount\": -0}",
+                "{\"amount\": 5, \"type\": \"\\ud800\"}",
+                "{\"amount\": 5, \"type\": \"\\udc00\\ud800\"}"};
+        for (String json : declined) {
+            assertThatThrownBy(() -> read(json)).isInstanceOf(IllegalArgumentException.class);
+        }
+        // a surrogate encoded in UTF-8, which the JDK decoder would replace with U+FFFD
+        byte[] encodedSurrogate = {'{', '"', 'a', 'm', 'o', 'u', 'n', 't', '"', ':', '1', ',',
+                '"', 't', 'y', 'p', 'e', '"', ':', '"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"', '}'};
+        assertThatThrownBy(() -> codec.readCreateRequest(encodedSurrogate, 0, encodedSurrogate.length))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldParseAmountsExactly() throws IOException {
+        for (String amount : new String[]{"0.1", "3.14159", "99999.99", "0.000001", "-42.5", "1.5e3", "0.30000000000000004"}) {
+            assertThat(read("{\"amount\": " + amount + "}").amount()).isEqualTo(Double.parseDouble(amount));
+        }
+    }
+
+    @Test
+    void shouldDecodeEscapedStrings() throws IOException {
+        assertThat(read("{\"amount\": 1, \"type\": \"a\\u00e9\\n\\\"\"}").type()).isEqualTo("aé\n\"");
+        assertThat(read("{\"amount\": 1, \"type\": \"\\ud83d\\ude00 é\"}").type()).isEqualTo("\ud83d\ude00 é");
+    }
+
+    @Test
+    void shouldRejectMalformedBodies() {
+        assertThatThrownBy(() -> read("{\"amount\": }")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("{\"amount\": 1} trailing")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("{\"parent_id\": 1.5}")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("{\"type\": \"unterminated}")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("{\"amount\": 01}")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("{\"amount\": 1, \"parent_id\": -01}")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("{\"amount\": 1, \"type\": \"\\q\"}")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("{\"amount\": 1, \"type\": \"\\u+123\"}")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // --- helpers ---
+
+    private String written() {
+        return new String(codec.array(), 0, codec.length(), StandardCharsets.UTF_8);
+    }
+
+    private CreateTransactionRequest read(String json) throws IOException {
+        codec.reset();
+        return codec.readCreateRequest(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.transactionsapi.adapter.out.changefeed;
+
+import org.example.transactionsapi.domain.model.ChangesNoLongerAvailableException;
+import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.model.TransactionChange;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryTransactionChangeLogTest {
+
+    private static final Duration NO_WAIT = Duration.ZERO;
+
+    @Test
+    void shouldReturnChangesAfterSequenceInOrder() {
+        InMemoryTransactionChangeLog log = new InMemoryTransactionChangeLog(16);
+        Transaction v1 = new Transaction(1L, 100.0, "cars", null, 1L);
+        Transaction v2 = new Transaction(1L, 200.0, "cars", null, 2L);
+        log.append(null, v1);
+        log.append(v1, v2);
+
+        List<TransactionChange> changes = log.readAfter(0, 10, NO_WAIT);
+
+        assertThat(changes).extracting(TransactionChange::sequence).containsExactly(1L, 2L);
+        assertThat(changes.get(0).before()).isNull();
+        assertThat(changes.get(1).before()).isEqualTo(v1);
+        assertThat(changes.get(1).after()).isEqualTo(v2);
+        assertThat(log.readAfter(1, 10, NO_WAIT)).extracting(TransactionChange::sequence).containsExactly(2L);
+    }
+
+    @Test
+    void shouldRespectLimit() {
+        InMemoryTransactionChangeLog log = new InMemoryTransactionChangeLog(16);
+        for (long i = 1; i <= 5; i++) {
+            log.append(null, new Transaction(i, 1.0, "t", null));
+        }
+
+        assertThat(log.readAfter(1, 2, NO_WAIT)).extracting(TransactionChange::sequence).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void shouldReturnEmptyWhenNothingArrivesBeforeTimeout() {
+        InMemoryTransactionChangeLog log = new InMemoryTransactionChangeLog(16);
+
+        assertThat(log.readAfter(0, 10, Duration.ofMillis(20))).isEmpty();
+    }
+
+    @Test
+    void shouldWakeWaitingReaderOnAppend() throws Exception {
+        InMemoryTransactionChangeLog log = new InMemoryTransactionChangeLog(16);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<TransactionChange>> pending = executor.submit(() -> log.readAfter(0, 10, Duration.ofSeconds(10)));
+            Thread.sleep(50);
+            log.append(null, new Transaction(1L, 1.0, "t", null));
+
+            assertThat(pending.get()).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldSignalGapWhenReaderHasBeenLapped() {
+        InMemoryTransactionChangeLog log = new InMemoryTransactionChangeLog(4);
+        for (long i = 1; i <= 10; i++) {
+            log.append(null, new Transaction(i, 1.0, "t", null));
+        }
+
+        assertThatThrownBy(() -> log.readAfter(2, 10, NO_WAIT))
+                .isInstanceOf(ChangesNoLongerAvailableException.class);
+        assertThat(log.readAfter(6, 10, NO_WAIT)).extracting(TransactionChange::sequence)
+                .containsExactly(7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void shouldSignalGapWhenResumingPastTheLatestSequence() {
+        // e.g. a Last-Event-ID handed out before a restart
+        InMemoryTransactionChangeLog log = new InMemoryTransactionChangeLog(16);
+        log.append(null, new Transaction(1L, 1.0, "t", null));
+
+        assertThatThrownBy(() -> log.readAfter(500, 10, Duration.ofSeconds(10)))
+                .isInstanceOf(ChangesNoLongerAvailableException.class);
+        assertThat(log.readAfter(1, 10, NO_WAIT)).isEmpty();
+    }
+
+    @Test
+    void shouldDrawANewEpochForEachLog() {
+        // a restarted process builds a new log, whose sequences must not be confused with the old ones
+        assertThat(new InMemoryTransactionChangeLog(16).epoch())
+                .isNotEqualTo(new InMemoryTransactionChangeLog(16).epoch())
+                .doesNotContain("-");
+    }
+
+    @Test
+    void shouldNotBlockWritersWhenNobodyReads() {
+        InMemoryTransactionChangeLog log = new InMemoryTransactionChangeLog(1024);
+
+        for (long i = 1; i <= 100_000; i++) {
+            log.append(null, new Transaction(i, 1.0, "t", null));
+        }
+
+        assertThat(log.latestSequence()).isEqualTo(100_000L);
+    }
+
+    @Test
+    void shouldDeliverEveryChangeToHundredsOfConcurrentSubscribers() throws Exception {
+        int subscribers = 300;
+        int changes = 5_000;
+        InMemoryTransactionChangeLog log = new InMemoryTransactionChangeLog(8192);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int s = 0; s < subscribers; s++) {
+                results.add(executor.submit(() -> {
+                    List<Long> seen = new ArrayList<>(changes);
+                    long cursor = 0;
+                    while (seen.size() < changes) {
+                        for (TransactionChange change : log.readAfter(cursor, 256, Duration.ofSeconds(5))) {
+                            seen.add(change.sequence());
+                            cursor = change.sequence();
+                        }
+                    }
+                    return seen;
+                }));
+            }
+
+            for (long i = 1; i <= changes; i++) {
+                log.append(null, new Transaction(i, 1.0, "t", null));
+            }
+
+            for (Future<List<Long>> result : results) {
+                List<Long> seen = result.get();
+                assertThat(seen).hasSize(changes);
+                assertThat(seen).isSorted();
+                assertThat(seen.get(changes - 1)).isEqualTo((long) changes);
+            }
+        }
+    }
+}
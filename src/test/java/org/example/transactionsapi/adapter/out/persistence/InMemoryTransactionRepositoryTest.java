@@ -0,0 +1,62 @@
+package org.example.transactionsapi.adapter.out.persistence;
+
+import org.example.transactionsapi.domain.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTransactionRepositoryTest {
+
+    private final InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+
+    @Test
+    void shouldFollowParentAndTypeChangesInLookups() {
+        repository.save(new Transaction(10L, 5000.0, "cars", null));
+        repository.save(new Transaction(11L, 10000.0, "shopping", 10L));
+
+        assertThat(repository.replace(new Transaction(11L, 10000.0, "boats", null, 2), 1)).isTrue();
+
+        assertThat(repository.findByParentId(10L)).isEmpty();
+        assertThat(repository.findByType("shopping")).isEmpty();
+        assertThat(repository.findByType("boats")).extracting(Transaction::id).containsExactly(11L);
+    }
+
+    @Test
+    void shouldNotTouchIndexesWhenReplaceLosesTheRace() {
+        repository.save(new Transaction(11L, 10000.0, "shopping", 10L));
+
+        assertThat(repository.replace(new Transaction(11L, 1.0, "boats", null, 2), 5)).isFalse();
+
+        assertThat(repository.findByParentId(10L)).extracting(Transaction::id).containsExactly(11L);
+        assertThat(repository.findByType("boats")).isEmpty();
+    }
+
+    @Test
+    void shouldIndexBulkLoadedTransactions() {
+        repository.save(new Transaction(1L, 1.0, "old", 7L));
+        List<Transaction> batch = List.of(
+                new Transaction(1L, 2.0, "new", 9L, 4),
+                new Transaction(2L, 3.0, "new", 1L));
+
+        repository.bulkLoad(batch.iterator());
+
+        assertThat(repository.findByParentId(7L)).isEmpty();
+        assertThat(repository.findByParentId(9L)).extracting(Transaction::id).containsExactly(1L);
+        assertThat(repository.findByParentId(1L)).extracting(Transaction::id).containsExactly(2L);
+        assertThat(repository.findByType("new")).extracting(Transaction::id).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void shouldVisitEveryTransaction() {
+        repository.save(new Transaction(1L, 1.0, "a", null));
+        repository.save(new Transaction(2L, 2.0, "b", 1L));
+        List<Long> visited = new ArrayList<>();
+
+        repository.forEach(t -> visited.add(t.id()));
+
+        assertThat(visited).containsExactlyInAnyOrder(1L, 2L);
+    }
+}
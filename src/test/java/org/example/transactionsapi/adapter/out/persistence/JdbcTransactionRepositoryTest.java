@@ -0,0 +1,269 @@
+package org.example.transactionsapi.adapter.out.persistence;
+
+import org.example.transactionsapi.BeanConfiguration;
+import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.model.TransactionIdTakenException;
+import org.example.transactionsapi.domain.model.TransactionNotFoundException;
+import org.example.transactionsapi.domain.port.out.TransactionChangeLog;
+import org.example.transactionsapi.domain.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcTransactionRepositoryTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        repository = new JdbcTransactionRepository(dataSource);
+    }
+
+    @Test
+    void shouldSaveAndFindById() {
+        repository.save(new Transaction(10L, 5000.0, "cars", null));
+        repository.save(new Transaction(11L, 10000.0, "shopping", 10L));
+
+        assertThat(repository.findById(10L)).contains(new Transaction(10L, 5000.0, "cars", null));
+        assertThat(repository.findById(11L)).contains(new Transaction(11L, 10000.0, "shopping", 10L));
+        assertThat(repository.findById(99L)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectSaveWithExistingIdInsteadOfOverwriting() {
+        repository.save(new Transaction(10L, 5000.0, "cars", null));
+
+        assertThatThrownBy(() -> repository.save(new Transaction(10L, 7000.0, "boats", null, 3)))
+                .isInstanceOf(TransactionIdTakenException.class);
+        assertThat(repository.findById(10L)).contains(new Transaction(10L, 5000.0, "cars", null));
+    }
+
+    @Test
+    void shouldStoreTypesLongerThanAShortVarchar() {
+        String type = "t".repeat(1000);
+
+        repository.save(new Transaction(10L, 5000.0, type, null));
+
+        assertThat(repository.findById(10L)).contains(new Transaction(10L, 5000.0, type, null));
+        assertThat(repository.findByType(type)).containsExactly(new Transaction(10L, 5000.0, type, null));
+    }
+
+    @Test
+    void shouldAllocateDistinctIdsForInstancesSharingTheDatabase() {
+        JdbcTransactionRepository otherRepository = new JdbcTransactionRepository(dataSource);
+        TransactionService first = startedOn(repository);
+        TransactionService second = startedOn(otherRepository);
+        List<Long> ids = new ArrayList<>();
+
+        // both start from the same MAX(id) and would hand out the same ids without re-syncing
+        for (int i = 0; i < 50; i++) {
+            ids.add(first.createTransaction(1.0, "first", null));
+            ids.add(second.createTransaction(2.0, "second", null));
+        }
+
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(repository.findByType("first")).hasSize(50);
+        assertThat(repository.findByType("second")).hasSize(50);
+    }
+
+    @Test
+    void shouldReportHighestStoredId() {
+        assertThat(repository.maxId()).isZero();
+
+        repository.save(new Transaction(42L, 1.0, "a", null));
+        repository.save(new Transaction(7L, 1.0, "a", null));
+
+        assertThat(repository.maxId()).isEqualTo(42L);
+    }
+
+    @Test
+    void shouldAllocateIdsAboveStoredRowsAfterRestart() {
+        TransactionService before = new TransactionService(repository);
+        Long first = before.createTransaction(5000.0, "cars", null);
+        Long second = before.createTransaction(10000.0, "shopping", first);
+
+        JdbcTransactionRepository reopened = new JdbcTransactionRepository(dataSource);
+        TransactionService after = startedOn(reopened);
+        Long third = after.createTransaction(1.0, "other", null);
+
+        assertThat(third).isGreaterThan(second);
+        assertThat(reopened.findById(first)).contains(new Transaction(first, 5000.0, "cars", null));
+        assertThat(reopened.findById(second)).contains(new Transaction(second, 10000.0, "shopping", first));
+    }
+
+    @Test
+    void shouldReplaceOnlyAtExpectedVersion() {
+        repository.save(new Transaction(10L, 5000.0, "cars", null));
+
+        assertThat(repository.replace(new Transaction(10L, 6000.0, "cars", null, 2), 1)).isTrue();
+        assertThat(repository.replace(new Transaction(10L, 9000.0, "cars", null, 2), 1)).isFalse();
+        assertThat(repository.replace(new Transaction(99L, 1.0, "cars", null, 2), 1)).isFalse();
+        assertThat(repository.findById(10L)).contains(new Transaction(10L, 6000.0, "cars", null, 2));
+    }
+
+    @Test
+    void shouldFindByTypeAndParentId() {
+        repository.save(new Transaction(10L, 5000.0, "cars", null));
+        repository.save(new Transaction(11L, 10000.0, "shopping", 10L));
+        repository.save(new Transaction(12L, 5000.0, "shopping", 11L));
+
+        assertThat(repository.findByType("shopping")).extracting(Transaction::id).containsExactlyInAnyOrder(11L, 12L);
+        assertThat(repository.findByType("unknown")).isEmpty();
+        assertThat(repository.findByParentId(10L)).extracting(Transaction::id).containsExactly(11L);
+    }
+
+    @Test
+    void shouldSumSubtreeInOneQuery() {
+        repository.save(new Transaction(10L, 5000.0, "cars", null));
+        repository.save(new Transaction(11L, 10000.0, "shopping", 10L));
+        repository.save(new Transaction(12L, 5000.0, "shopping", 11L));
+        repository.save(new Transaction(13L, 1.0, "other", null));
+
+        assertThat(repository.sumSubtree(10L)).hasValue(20000.0);
+        assertThat(repository.sumSubtree(11L)).hasValue(15000.0);
+        assertThat(repository.sumSubtree(12L)).hasValue(5000.0);
+    }
+
+    @Test
+    void shouldReturnEmptySumForUnknownId() {
+        assertThat(repository.sumSubtree(99L)).isEmpty();
+    }
+
+    @Test
+    void shouldUpsertInBatches() {
+        repository.save(new Transaction(1L, 1.0, "a", null));
+        List<Transaction> batch = new ArrayList<>();
+        for (long id = 1; id <= 1200; id++) {
+            batch.add(new Transaction(id, 2.0, "b", id == 1 ? null : 1L));
+        }
+
+        repository.saveAll(batch);
+
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM transactions", Long.class))
+                .isEqualTo(1200L);
+        assertThat(repository.findById(1L)).contains(new Transaction(1L, 2.0, "b", null));
+        assertThat(repository.sumSubtree(1L)).hasValue(2400.0);
+    }
+
+    @Test
+    void shouldUpsertWhenTheDriverReportsNoUpdateCounts() {
+        JdbcTransactionRepository noInfo = new JdbcTransactionRepository(reportingNoUpdateCounts(dataSource));
+        noInfo.save(new Transaction(1L, 1.0, "a", null));
+
+        noInfo.saveAll(List.of(new Transaction(1L, 2.0, "b", null), new Transaction(2L, 3.0, "b", 1L)));
+
+        assertThat(repository.findById(1L)).contains(new Transaction(1L, 2.0, "b", null));
+        assertThat(repository.findById(2L)).contains(new Transaction(2L, 3.0, "b", 1L));
+    }
+
+    @Test
+    void shouldStreamEveryRowWithAutoCommitOff() {
+        repository.save(new Transaction(10L, 5000.0, "cars", null));
+        repository.save(new Transaction(11L, 10000.0, "shopping", 10L));
+        List<Long> visited = new ArrayList<>();
+        List<Boolean> autoCommit = new ArrayList<>();
+
+        repository.forEach(t -> {
+            visited.add(t.id());
+            autoCommit.add(autoCommitOfBoundConnection());
+        });
+
+        assertThat(visited).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(autoCommit).containsOnly(false);
+    }
+
+    @Test
+    void shouldKeepExistingRowsWhenSchemaIsReapplied() {
+        repository.save(new Transaction(10L, 5000.0, "cars", null));
+
+        JdbcTransactionRepository reopened = new JdbcTransactionRepository(dataSource);
+
+        assertThat(reopened.findById(10L)).isPresent();
+    }
+
+    @Test
+    void shouldServeDomainSumsThroughPushDown() {
+        TransactionService service = new TransactionService(repository);
+        Long root = service.createTransaction(5000.0, "cars", null);
+        Long child = service.createTransaction(10000.0, "shopping", root);
+        service.createTransaction(5000.0, "shopping", child);
+
+        assertThat(service.getTransactionSum(root)).isEqualTo(20000.0);
+        assertThat(service.isSumVersionAuthoritative()).isFalse();
+        assertThatThrownBy(() -> service.getTransactionSum(999L))
+                .isInstanceOf(TransactionNotFoundException.class);
+    }
+
+    /** A service wired as on application startup. */
+    private static TransactionService startedOn(JdbcTransactionRepository repository) {
+        return new TransactionService(repository, TransactionChangeLog.discarding(),
+                TransactionService.UNLIMITED_SUM_NODES, new BeanConfiguration().idSequence(List.of(), 0, repository));
+    }
+
+    /** Answers every executed batch with SUCCESS_NO_INFO, as some drivers do, instead of update counts. */
+    private static DataSource reportingNoUpdateCounts(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return proxy(Connection.class, connection, (method, args) -> {
+                    Object result = method.invoke(connection, args);
+                    if (result instanceof PreparedStatement statement) {
+                        return proxy(PreparedStatement.class, statement, (statementMethod, statementArgs) -> {
+                            Object counts = statementMethod.invoke(statement, statementArgs);
+                            if (statementMethod.getName().equals("executeBatch")) {
+                                Arrays.fill((int[]) counts, Statement.SUCCESS_NO_INFO);
+                            }
+                            return counts;
+                        });
+                    }
+                    return result;
+                });
+            }
+        };
+    }
+
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            try {
+                return invocation.invoke(method, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }));
+    }
+
+    /** The connection the streaming query runs on, as bound to the current thread by its transaction. */
+    private boolean autoCommitOfBoundConnection() {
+        try {
+            return DataSourceUtils.getConnection(dataSource).getAutoCommit();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package org.example.transactionsapi.adapter.out.persistence;
+
+import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TieredTransactionRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private TieredTransactionRepository repository;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    @Test
+    void shouldKeepHotTierBoundedThroughAMonthOfIngest() {
+        int budget = 500;
+        repository = new TieredTransactionRepository(budget, directory, 1024 * 1024);
+        TransactionService service = new TransactionService(repository);
+        List<Long> firstDayRoots = new ArrayList<>();
+        int maxHotSeen = 0;
+
+        // 30 days x 100 trees a day, each tree: root, three children, one grandchild
+        for (int day = 0; day < 30; day++) {
+            for (int tree = 0; tree < 100; tree++) {
+                Long root = service.createTransaction(100.0, "day-" + day, null);
+                Long child = service.createTransaction(10.0, "child", root);
+                service.createTransaction(10.0, "child", root);
+                service.createTransaction(10.0, "child", root);
+                service.createTransaction(1.0, "grandchild", child);
+                if (day == 0) {
+                    firstDayRoots.add(root);
+                }
+                maxHotSeen = Math.max(maxHotSeen, repository.hotSize());
+            }
+        }
+
+        assertThat(maxHotSeen).isLessThanOrEqualTo(budget);
+        assertThat(repository.hotSize() + repository.coldSize()).isEqualTo(30 * 100 * 5);
+        // what spilled transactions still cost on the heap: primitive index entries, not the transactions
+        assertThat(repository.coldIndexBytes()).isLessThanOrEqualTo(128L * repository.coldSize());
+
+        // a settled tree is summed from its cold record, without coming back into memory
+        Long settled = firstDayRoots.get(0);
+        int coldBefore = repository.coldSize();
+        assertThat(service.getTransactionSum(settled)).isEqualTo(131.0);
+        assertThat(repository.coldSize()).isEqualTo(coldBefore);
+
+        // and is faulted back in transparently on access, still within budget
+        assertThat(service.getTransactionById(settled).amount()).isEqualTo(100.0);
+        assertThat(repository.sumSubtree(settled)).isEmpty();
+        assertThat(service.getTransactionSum(settled)).isEqualTo(131.0);
+        assertThat(repository.hotSize()).isLessThanOrEqualTo(budget);
+        assertThat(repository.hotSize() + repository.coldSize()).isEqualTo(30 * 100 * 5);
+    }
+
+    @Test
+    void shouldKeepEveryTreeIntactWhileWritersEvictConcurrently() throws Exception {
+        repository = new TieredTransactionRepository(50, directory, 4 * 1024);
+        TransactionService service = new TransactionService(repository);
+        List<Long> roots = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> done = new ArrayList<>();
+            for (int writer = 0; writer < 4; writer++) {
+                done.add(writers.submit(() -> {
+                    for (int tree = 0; tree < 200; tree++) {
+                        Long root = service.createTransaction(100.0, "concurrent", null);
+                        service.createTransaction(10.0, "concurrent", root);
+                        service.createTransaction(1.0, "concurrent", root);
+                        roots.add(root);
+                        // reads fault earlier trees back in while others are being spilled
+                        service.getTransactionById(roots.get(tree % roots.size()));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : done) {
+                writer.get();
+            }
+        }
+
+        assertThat(repository.hotSize() + repository.coldSize()).isEqualTo(4 * 200 * 3);
+        assertThat(repository.findByType("concurrent")).hasSize(4 * 200 * 3);
+        for (Long root : roots) {
+            assertThat(service.getTransactionSum(root)).isEqualTo(111.0);
+        }
+    }
+
+    @Test
+    void shouldAnswerColdSumsForInnerNodes() {
+        repository = new TieredTransactionRepository(4, directory, 1024 * 1024);
+        saveTree(10L, 5000.0, 11L, 10000.0, 12L, 5000.0);
+        saveTree(20L, 1.0, 21L, 1.0, 22L, 1.0); // pushes the first tree out
+
+        assertThat(repository.findById(10L)).isPresent(); // evicts the second one in turn
+        assertThat(repository.sumSubtree(10L)).isEmpty(); // hot: left to the domain traversal
+        assertThat(repository.sumSubtree(20L)).hasValue(3.0);
+        assertThat(repository.sumSubtree(21L)).hasValue(2.0);
+        assertThat(repository.sumSubtree(22L)).hasValue(1.0);
+        assertThat(repository.sumSubtree(99L)).isEmpty();
+    }
+
+    @Test
+    void shouldFaultTreeInWhenAChildIsAddedToIt() {
+        repository = new TieredTransactionRepository(4, directory, 1024 * 1024);
+        TransactionService service = new TransactionService(repository);
+        Long root = service.createTransaction(5000.0, "cars", null);
+        Long child = service.createTransaction(10000.0, "shopping", root);
+        Long other = service.createTransaction(1.0, "other", null);
+        service.createTransaction(1.0, "other", other);
+        service.createTransaction(1.0, "other", other);
+        assertThat(repository.existsById(root)).isTrue();
+        assertThat(repository.hotSize()).isLessThanOrEqualTo(4);
+
+        Long grandchild = service.createTransaction(5000.0, "shopping", child);
+
+        assertThat(repository.findByParentId(child)).extracting(Transaction::id).containsExactly(grandchild);
+        assertThat(service.getTransactionSum(root)).isEqualTo(20000.0);
+    }
+
+    @Test
+    void shouldAdoptColdOrphansWhenTheirParentIsCreated() {
+        repository = new TieredTransactionRepository(2, directory, 1024 * 1024);
+        repository.save(new Transaction(5L, 7.0, "orphan", 999L));
+        repository.save(new Transaction(6L, 1.0, "filler", null));
+        repository.save(new Transaction(7L, 1.0, "filler", null)); // evicts the orphan
+        assertThat(repository.coldSize()).isPositive();
+
+        repository.save(new Transaction(999L, 3.0, "late-parent", null));
+
+        assertThat(repository.findByParentId(999L)).extracting(Transaction::id).containsExactly(5L);
+        assertThat(new TransactionService(repository).getTransactionSum(999L)).isEqualTo(10.0);
+    }
+
+    @Test
+    void shouldReparentUnderAColdTree() {
+        repository = new TieredTransactionRepository(3, directory, 1024 * 1024);
+        saveTree(10L, 100.0, 11L, 10.0, 12L, 1.0);
+        repository.save(new Transaction(20L, 5.0, "mover", null)); // tree 10 goes cold
+        assertThat(repository.sumSubtree(10L)).hasValue(111.0);
+
+        assertThat(repository.replace(new Transaction(20L, 5.0, "mover", 12L, 2), 1)).isTrue();
+
+        assertThat(repository.findByParentId(12L)).extracting(Transaction::id).containsExactly(20L);
+        assertThat(new TransactionService(repository).getTransactionSum(10L)).isEqualTo(116.0);
+    }
+
+    @Test
+    void shouldFindColdTransactionsByTypeWithoutFaultingThemIn() {
+        repository = new TieredTransactionRepository(2, directory, 1024 * 1024);
+        repository.save(new Transaction(1L, 1.0, "cars", null));
+        repository.save(new Transaction(2L, 1.0, "boats", null));
+        repository.save(new Transaction(3L, 1.0, "cars", null));
+        repository.save(new Transaction(4L, 1.0, "boats", null));
+        int cold = repository.coldSize();
+
+        assertThat(repository.findByType("cars")).extracting(Transaction::id).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(repository.coldSize()).isEqualTo(cold);
+    }
+
+    @Test
+    void shouldSpillTypesLongerThanModifiedUtf8Allows() {
+        repository = new TieredTransactionRepository(1, directory, 1024 * 1024);
+        String longType = "é".repeat(40_000);
+        repository.save(new Transaction(1L, 1.0, longType, null));
+        repository.save(new Transaction(2L, 1.0, "filler", null)); // spills the first one
+        assertThat(repository.coldSize()).isPositive();
+
+        assertThat(repository.findByType(longType)).extracting(Transaction::id).containsExactly(1L);
+        assertThat(repository.findById(1L)).map(Transaction::type).contains(longType);
+    }
+
+    @Test
+    void shouldVisitBothTiers() {
+        repository = new TieredTransactionRepository(3, directory, 1024 * 1024);
+        for (long id = 1; id <= 20; id++) {
+            repository.save(new Transaction(id, 1.0, "t", id % 4 == 1 ? null : id - 1));
+        }
+        List<Long> visited = new ArrayList<>();
+
+        repository.forEach(t -> visited.add(t.id()));
+
+        assertThat(repository.coldSize()).isPositive();
+        assertThat(visited).hasSize(20).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldCompactSpillFileWhenFaultedTreesLeaveItMostlyDead() {
+        repository = new TieredTransactionRepository(2, directory, 4096);
+        repository.save(new Transaction(1L, 1.0, "a", null));
+        repository.save(new Transaction(2L, 2.0, "b", null));
+        repository.save(new Transaction(3L, 3.0, "c", null));
+
+        // keep bouncing the same trees between the tiers; each round trip leaves a dead record
+        long largest = 0;
+        for (int round = 0; round < 2000; round++) {
+            long id = round % 3 + 1;
+            assertThat(repository.findById(id)).map(Transaction::amount).contains((double) id);
+            largest = Math.max(largest, repository.segmentBytes());
+        }
+
+        assertThat(largest).isLessThan(3 * 4096);
+        assertThat(repository.findByType("a")).extracting(Transaction::id).containsExactly(1L);
+        assertThat(repository.hotSize() + repository.coldSize()).isEqualTo(3);
+    }
+
+    private void saveTree(long rootId, double rootAmount, long childId, double childAmount,
+                          long grandchildId, double grandchildAmount) {
+        repository.save(new Transaction(rootId, rootAmount, "tree", null));
+        repository.save(new Transaction(childId, childAmount, "tree", rootId));
+        repository.save(new Transaction(grandchildId, grandchildAmount, "tree", childId));
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.transactionsapi.domain.service;
+
+import org.example.transactionsapi.domain.model.TransactionNotFoundException;
+import org.example.transactionsapi.domain.model.TransactionSumCapacityExceededException;
+import org.example.transactionsapi.domain.port.in.GetTransactionSumUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingTransactionSumServiceTest {
+
+    private final BlockingSums delegate = new BlockingSums();
+    private final Semaphore joined = new Semaphore(0);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        delegate.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneTraversalAmongConcurrentCallers() throws Exception {
+        CoalescingTransactionSumService service = coalescing(4);
+        int callers = 50;
+
+        List<Future<Double>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> service.getTransactionSum(1L)));
+        }
+        awaitTraversals(1);
+        awaitJoiners(callers - 1);
+        delegate.release.countDown();
+
+        for (Future<Double> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(0.0);
+        }
+        assertThat(delegate.traversals.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStartFreshTraversalForCallersArrivingAfterAWrite() throws Exception {
+        CoalescingTransactionSumService service = coalescing(4);
+
+        Future<Double> beforeWrite = executor.submit(() -> service.getTransactionSum(1L));
+        awaitTraversals(1);
+
+        delegate.version.incrementAndGet();
+        Future<Double> afterWrite = executor.submit(() -> service.getTransactionSum(1L));
+        awaitTraversals(1);
+        delegate.release.countDown();
+
+        assertThat(beforeWrite.get(5, TimeUnit.SECONDS)).isEqualTo(0.0);
+        assertThat(afterWrite.get(5, TimeUnit.SECONDS)).isEqualTo(1.0);
+        assertThat(delegate.traversals.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldPropagateFailureToEveryCaller() throws Exception {
+        CoalescingTransactionSumService service = coalescing(4);
+        delegate.failure = new IllegalStateException("boom");
+
+        Future<Double> first = executor.submit(() -> service.getTransactionSum(1L));
+        Future<Double> second = executor.submit(() -> service.getTransactionSum(1L));
+        awaitTraversals(1);
+        awaitJoiners(1);
+        delegate.release.countDown();
+
+        for (Future<Double> result : List.of(first, second)) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void shouldRejectDistinctTraversalsBeyondCap() throws Exception {
+        CoalescingTransactionSumService service = coalescing(1);
+
+        Future<Double> running = executor.submit(() -> service.getTransactionSum(1L));
+        awaitTraversals(1);
+
+        assertThatThrownBy(() -> service.getTransactionSum(2L))
+                .isInstanceOf(TransactionSumCapacityExceededException.class);
+
+        delegate.release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(0.0);
+        assertThat(service.getTransactionSum(2L)).isEqualTo(0.0);
+    }
+
+    @Test
+    void shouldPropagateNotFoundWithoutTraversing() {
+        CoalescingTransactionSumService service = coalescing(1);
+
+        assertThatThrownBy(() -> service.getTransactionSum(999L))
+                .isInstanceOf(TransactionNotFoundException.class);
+        assertThat(delegate.traversals.get()).isZero();
+    }
+
+    private CoalescingTransactionSumService coalescing(int maxConcurrentTraversals) {
+        return new CoalescingTransactionSumService(delegate, maxConcurrentTraversals, joined::release);
+    }
+
+    /** Waits for that many more traversals to have started (and be blocked in the delegate). */
+    private void awaitTraversals(int count) throws InterruptedException {
+        assertThat(delegate.started.tryAcquire(count, 5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    /** Waits for that many more callers to have joined an in-flight traversal. */
+    private void awaitJoiners(int count) throws InterruptedException {
+        assertThat(joined.tryAcquire(count, 5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    /** Delegate whose traversals block until released; each returns the version it started at. */
+    private static class BlockingSums implements GetTransactionSumUseCase {
+
+        final AtomicLong version = new AtomicLong();
+        final AtomicInteger traversals = new AtomicInteger();
+        final Semaphore started = new Semaphore(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile RuntimeException failure;
+
+        @Override
+        public double getTransactionSum(Long transactionId) {
+            long startedAt = version.get();
+            traversals.incrementAndGet();
+            started.release();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return startedAt;
+        }
+
+        @Override
+        public long getTransactionSumVersion(Long transactionId) {
+            if (transactionId == 999L) {
+                throw new TransactionNotFoundException(transactionId);
+            }
+            return version.get();
+        }
+
+        @Override
+        public String getSumVersionEpoch() {
+            return "test";
+        }
+
+        @Override
+        public boolean isSumVersionAuthoritative() {
+            return true;
+        }
+    }
+}
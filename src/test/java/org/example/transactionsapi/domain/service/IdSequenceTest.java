@@ -0,0 +1,44 @@
+package org.example.transactionsapi.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdSequenceTest {
+
+    @Test
+    void shouldCountUpByOneWhenStandalone() {
+        IdSequence ids = IdSequence.single();
+
+        assertThat(new long[]{ids.next(), ids.next(), ids.next()}).containsExactly(1, 2, 3);
+        assertThat(ids.partitionOf(42)).isZero();
+    }
+
+    @Test
+    void shouldInterleaveIdsAcrossNodes() {
+        IdSequence first = new IdSequence(3, 0);
+        IdSequence second = new IdSequence(3, 1);
+        IdSequence third = new IdSequence(3, 2);
+
+        assertThat(new long[]{first.next(), first.next()}).containsExactly(1, 4);
+        assertThat(new long[]{second.next(), second.next()}).containsExactly(2, 5);
+        assertThat(new long[]{third.next(), third.next()}).containsExactly(3, 6);
+    }
+
+    @Test
+    void shouldMapEveryAllocatedIdBackToItsNode() {
+        for (int node = 0; node < 3; node++) {
+            IdSequence ids = new IdSequence(3, node);
+            for (int i = 0; i < 10; i++) {
+                assertThat(ids.partitionOf(ids.next())).isEqualTo(node);
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectOffsetOutsideStride() {
+        assertThatThrownBy(() -> new IdSequence(2, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IdSequence(0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
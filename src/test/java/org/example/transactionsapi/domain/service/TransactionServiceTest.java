@@ -1,21 +1,49 @@
 package org.example.transactionsapi.domain.service;
 
+import org.example.transactionsapi.domain.model.ChangesNoLongerAvailableException;
+import org.example.transactionsapi.domain.model.CrossPartitionReparentException;
 import org.example.transactionsapi.domain.model.Transaction;
+import org.example.transactionsapi.domain.model.TransactionIdTakenException;
+import org.example.transactionsapi.domain.model.TransactionImport;
 import org.example.transactionsapi.domain.model.TransactionNotFoundException;
+import org.example.transactionsapi.domain.model.TransactionSumBudgetExceededException;
+import org.example.transactionsapi.domain.model.TransactionVersionConflictException;
+import org.example.transactionsapi.domain.port.out.TransactionChangeLog;
 import org.example.transactionsapi.domain.port.out.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +52,9 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository repository;
 
+    @Mock
+    private TransactionChangeLog changeLog;
+
     private TransactionService service;
 
     @BeforeEach
@@ -60,21 +91,60 @@ class TransactionServiceTest {
         assertThat(saved.parentId()).isEqualTo(99L);
     }
 
+    @Test
+    void shouldRetryWithAnIdAboveTheStoresWhenAnotherProcessTookIt() {
+        doThrow(new TransactionIdTakenException(1L)).doNothing().when(repository).save(any());
+        when(repository.maxId()).thenReturn(7L);
+
+        Long id = service.createTransaction(250.0, "payment", null);
+
+        assertThat(id).isEqualTo(8L);
+        verify(repository).save(new Transaction(1L, 250.0, "payment", null));
+        verify(repository).save(new Transaction(8L, 250.0, "payment", null));
+    }
+
     // --- updateTransaction (PUT — must exist) ---
 
     @Test
     void shouldUpdateExistingTransaction() {
         Transaction existing = new Transaction(42L, 100.0, "cars", null);
         when(repository.findById(42L)).thenReturn(Optional.of(existing));
+        when(repository.replace(any(Transaction.class), anyLong())).thenReturn(true);
 
         service.updateTransaction(42L, 200.0, "trucks", null);
 
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
-        verify(repository).save(captor.capture());
+        verify(repository).replace(captor.capture(), eq(1L));
 
         assertThat(captor.getValue().id()).isEqualTo(42L);
         assertThat(captor.getValue().amount()).isEqualTo(200.0);
         assertThat(captor.getValue().type()).isEqualTo("trucks");
+        assertThat(captor.getValue().version()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldRetryUpdateWhenConcurrentWriterWins() {
+        Transaction v1 = new Transaction(42L, 100.0, "cars", null, 1L);
+        Transaction v2 = new Transaction(42L, 150.0, "cars", null, 2L);
+        when(repository.findById(42L)).thenReturn(Optional.of(v1), Optional.of(v2));
+        when(repository.replace(any(Transaction.class), eq(1L))).thenReturn(false);
+        when(repository.replace(any(Transaction.class), eq(2L))).thenReturn(true);
+
+        service.updateTransaction(42L, 200.0, "trucks", null);
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(repository).replace(captor.capture(), eq(2L));
+        assertThat(captor.getValue().version()).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldRejectUpdateWithStaleExpectedVersion() {
+        when(repository.findById(42L)).thenReturn(Optional.of(new Transaction(42L, 100.0, "cars", null, 3L)));
+
+        assertThatThrownBy(() -> service.updateTransaction(42L, 200.0, "trucks", null, 2L))
+                .isInstanceOf(TransactionVersionConflictException.class)
+                .hasMessageContaining("42");
+        verify(repository, never()).replace(any(Transaction.class), anyLong());
     }
 
     @Test
@@ -86,6 +156,85 @@ class TransactionServiceTest {
                 .hasMessageContaining("42");
     }
 
+    @Test
+    void shouldRejectReparentingUnderAnotherPartition() {
+        TransactionService clustered = new TransactionService(
+                repository, changeLog, TransactionService.UNLIMITED_SUM_NODES, new IdSequence(2, 0));
+
+        assertThatThrownBy(() -> clustered.updateTransaction(1L, 200.0, "trucks", 2L))
+                .isInstanceOf(CrossPartitionReparentException.class);
+        verify(repository, never()).replace(any(), anyLong());
+    }
+
+    // --- change log ---
+
+    @Test
+    void shouldAppendChangesForCreateAndUpdate() {
+        TransactionService publishing = new TransactionService(repository, changeLog);
+
+        Long id = publishing.createTransaction(100.0, "cars", null);
+        Transaction created = new Transaction(id, 100.0, "cars", null);
+        verify(changeLog).append(isNull(), eq(created));
+
+        when(repository.findById(id)).thenReturn(Optional.of(created));
+        when(repository.replace(any(Transaction.class), eq(1L))).thenReturn(true);
+        publishing.updateTransaction(id, 150.0, "cars", null);
+
+        verify(changeLog).append(created, new Transaction(id, 150.0, "cars", null, 2L));
+    }
+
+    @Test
+    void shouldLogCreateBeforeAnUpdateRacingIt() throws Exception {
+        TransactionService publishing = new TransactionService(repository, changeLog);
+        Transaction created = new Transaction(1L, 100.0, "cars", null);
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            saved.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(repository).save(created);
+        when(repository.findById(1L)).thenReturn(Optional.of(created));
+        when(repository.replace(any(Transaction.class), eq(1L))).thenReturn(true);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Long> create = executor.submit(() -> publishing.createTransaction(100.0, "cars", null));
+            assertThat(saved.await(5, TimeUnit.SECONDS)).isTrue();
+            // the create is stored but not yet logged: the update must wait for it
+            Future<?> update = executor.submit(() -> publishing.updateTransaction(1L, 150.0, "cars", null));
+            assertThatThrownBy(() -> update.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+            release.countDown();
+            assertThat(create.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+            update.get(5, TimeUnit.SECONDS);
+        }
+
+        InOrder logged = inOrder(changeLog);
+        logged.verify(changeLog).append(null, created);
+        logged.verify(changeLog).append(created, new Transaction(1L, 150.0, "cars", null, 2L));
+    }
+
+    @Test
+    void shouldNotAppendChangeWhenUpdateFails() {
+        TransactionService publishing = new TransactionService(repository, changeLog);
+        when(repository.findById(42L)).thenReturn(Optional.of(new Transaction(42L, 100.0, "cars", null, 3L)));
+
+        assertThatThrownBy(() -> publishing.updateTransaction(42L, 200.0, "cars", null, 1L))
+                .isInstanceOf(TransactionVersionConflictException.class);
+        verify(changeLog, never()).append(any(), any());
+    }
+
+    @Test
+    void shouldRejectChangePositionFromAnotherEpoch() {
+        TransactionService publishing = new TransactionService(repository, changeLog);
+        when(changeLog.epoch()).thenReturn("current");
+
+        assertThatThrownBy(() -> publishing.getChangesAfter("before-restart", 3, 10, Duration.ZERO))
+                .isInstanceOf(ChangesNoLongerAvailableException.class)
+                .hasMessageContaining("before-restart");
+        verify(changeLog, never()).readAfter(anyLong(), anyInt(), any());
+    }
+
     // --- getTransactionById ---
 
     @Test
@@ -164,6 +313,134 @@ class TransactionServiceTest {
         assertThat(service.getTransactionSum(11L)).isEqualTo(15000.0);
     }
 
+    @Test
+    void shouldAbandonSumBeyondNodeBudget() {
+        TransactionService budgeted = new TransactionService(repository, changeLog, 2);
+        Transaction t10 = new Transaction(10L, 5000.0, "cars", null);
+        Transaction t11 = new Transaction(11L, 10000.0, "shopping", 10L);
+        Transaction t12 = new Transaction(12L, 5000.0, "shopping", 11L);
+
+        when(repository.findById(10L)).thenReturn(Optional.of(t10));
+        when(repository.findByParentId(10L)).thenReturn(List.of(t11));
+        when(repository.findByParentId(11L)).thenReturn(List.of(t12));
+
+        assertThatThrownBy(() -> budgeted.getTransactionSum(10L))
+                .isInstanceOf(TransactionSumBudgetExceededException.class)
+                .hasMessageContaining("10");
+    }
+
+    @Test
+    void shouldUseSumComputedByStoreWhenAvailable() {
+        when(repository.sumSubtree(10L)).thenReturn(OptionalDouble.of(20000.0));
+
+        assertThat(service.getTransactionSum(10L)).isEqualTo(20000.0);
+        verify(repository).sumSubtree(10L);
+        verifyNoMoreInteractions(repository);
+    }
+
+    // --- getTransactionSumVersion ---
+
+    @Test
+    void shouldChangeSumVersionWhenDescendantIsWritten() {
+        Transaction root = new Transaction(1L, 500.0, "cars", null);
+        when(repository.existsById(1L)).thenReturn(true);
+        when(repository.findById(1L)).thenReturn(Optional.of(root));
+        long before = service.getTransactionSumVersion(1L);
+
+        Long childId = service.createTransaction(100.0, "cars", 1L);
+        when(repository.findById(childId)).thenReturn(Optional.of(new Transaction(childId, 100.0, "cars", 1L)));
+        service.createTransaction(50.0, "cars", childId);
+
+        assertThat(service.getTransactionSumVersion(1L)).isGreaterThan(before);
+    }
+
+    @Test
+    void shouldThrowForSumVersionOfUnknownId() {
+        when(repository.existsById(999L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.getTransactionSumVersion(999L))
+                .isInstanceOf(TransactionNotFoundException.class);
+    }
+
+    @Test
+    void shouldQualifyVersionsWithAnEpochOnlyWhenTheStoreRestartsWithTheProcess() {
+        when(repository.isProcessLocal()).thenReturn(true, false);
+
+        assertThat(service.getVersionEpoch()).isNotEmpty().isEqualTo(service.getSumVersionEpoch());
+        assertThat(service.getVersionEpoch()).isEmpty();
+        assertThat(new TransactionService(repository).getSumVersionEpoch()).isNotEqualTo(service.getSumVersionEpoch());
+    }
+
+    @Test
+    void shouldVouchForSumVersionsOnlyOverProcessLocalStores() {
+        when(repository.isProcessLocal()).thenReturn(true, false);
+
+        assertThat(service.isSumVersionAuthoritative()).isTrue();
+        assertThat(service.isSumVersionAuthoritative()).isFalse();
+    }
+
+    // --- importTransactions ---
+
+    @Test
+    void shouldAllocateIdsAboveImportedOnesAndInvalidateSumVersions() {
+        doAnswer(invocation -> {
+            invocation.<Iterator<Transaction>>getArgument(0).forEachRemaining(t -> { });
+            return null;
+        }).when(repository).bulkLoad(any());
+        when(repository.existsById(1L)).thenReturn(true);
+        long versionBefore = service.getTransactionSumVersion(1L);
+
+        TransactionImport result = service.importTransactions(List.of(
+                new Transaction(100L, 5.0, "cars", 1L),
+                new Transaction(1L, 10.0, "cars", null)).iterator());
+
+        assertThat(result).isEqualTo(new TransactionImport(2, 0));
+        assertThat(service.getTransactionSumVersion(1L)).isGreaterThan(versionBefore);
+        assertThat(service.createTransaction(1.0, "cars", null)).isEqualTo(101L);
+    }
+
+    @Test
+    void shouldAdvanceIdsBeforeEachImportedRowIsStored() {
+        List<Long> createdDuringImport = new ArrayList<>();
+        doAnswer(invocation -> {
+            Iterator<Transaction> rows = invocation.getArgument(0);
+            while (rows.hasNext()) {
+                rows.next();
+                // a create racing the import, after the row is read but before it is stored
+                createdDuringImport.add(service.createTransaction(1.0, "cars", null));
+            }
+            return null;
+        }).when(repository).bulkLoad(any());
+
+        service.importTransactions(List.of(
+                new Transaction(5L, 5.0, "cars", null),
+                new Transaction(9L, 10.0, "cars", null)).iterator());
+
+        assertThat(createdDuringImport).containsExactly(6L, 10L);
+    }
+
+    @Test
+    void shouldImportOnlyTransactionsOwnedByThisNode() {
+        TransactionService clustered = new TransactionService(
+                repository, changeLog, TransactionService.UNLIMITED_SUM_NODES, new IdSequence(2, 1));
+        List<Long> loaded = new ArrayList<>();
+        doAnswer(invocation -> {
+            invocation.<Iterator<Transaction>>getArgument(0).forEachRemaining(t -> loaded.add(t.id()));
+            return null;
+        }).when(repository).bulkLoad(any());
+
+        TransactionImport result = clustered.importTransactions(List.of(
+                new Transaction(1L, 1.0, "cars", null),
+                new Transaction(2L, 1.0, "cars", null),
+                new Transaction(3L, 1.0, "cars", 1L),
+                new Transaction(4L, 1.0, "cars", 2L),
+                new Transaction(5L, 1.0, "cars", null)).iterator());
+
+        assertThat(loaded).containsExactly(2L, 4L);
+        assertThat(result).isEqualTo(new TransactionImport(2, 3));
+        assertThat(clustered.createTransaction(1.0, "cars", null)).isEqualTo(6L);
+    }
+
     @Test
     void shouldThrowTransactionNotFoundExceptionForUnknownId() {
         when(repository.findById(999L)).thenReturn(Optional.empty());